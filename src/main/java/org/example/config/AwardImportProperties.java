@@ -0,0 +1,37 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @param parallelism number of files or sheets of one request imported at the same time
+ */
+@ConfigurationProperties(prefix = "award.import")
+public record AwardImportProperties(
+        @DefaultValue("4") int parallelism,
+        @DefaultValue Admission admission
+) {
+
+    /**
+     * Limits for imports running at the same time.
+     *
+     * @param maxConcurrentImports imports allowed to run at once
+     * @param memoryBudget         total size of uploads that may be processed at once
+     * @param defaultImportSize    size assumed for a request without Content-Length
+     * @param maxQueuedImports     imports allowed to wait across all clients
+     * @param maxQueuedPerClient   imports allowed to wait for a single client
+     * @param retryAfter           value of the Retry-After header for rejected imports
+     */
+    public record Admission(
+            @DefaultValue("4") int maxConcurrentImports,
+            @DefaultValue("256MB") DataSize memoryBudget,
+            @DefaultValue("16MB") DataSize defaultImportSize,
+            @DefaultValue("32") int maxQueuedImports,
+            @DefaultValue("4") int maxQueuedPerClient,
+            @DefaultValue("30s") Duration retryAfter
+    ) {
+    }
+}
@@ -1,25 +1,39 @@
 package org.example.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.example.model.dto.AwardUploadRow;
+import org.example.config.AwardImportProperties;
+import org.example.model.batch.ImportSource;
 import org.example.model.dto.ImportErrorDto;
 import org.example.model.dto.ImportResultDto;
 import org.example.service.AwardImportService;
+import org.example.service.admission.ImportAdmissionService;
+import org.example.service.admission.ImportRejectedException;
+import org.example.service.report.ImportErrorReportService;
 import org.example.service.parser.CsvAwardFileParser;
 import org.example.service.parser.ExcelAwardFileParser;
+import org.example.service.parser.ImportFormatException;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.ByteArrayInputStream;
+import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.Locale;
 
@@ -27,48 +41,120 @@ import java.util.Locale;
 @RequestMapping("/api/v1/awards")
 @RequiredArgsConstructor
 public class AwardImportController {
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+    static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final CsvAwardFileParser csvParser;
     private final ExcelAwardFileParser excelParser;
     private final AwardImportService importService;
+    private final ImportAdmissionService admissionService;
+    private final ImportErrorReportService errorReportService;
+    private final AwardImportProperties properties;
 
     @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public Mono<ResponseEntity<ImportResultDto>> importAwards(@RequestPart("file") FilePart filePart) {
+    public Mono<ResponseEntity<ImportResultDto>> importAwards(@RequestPart("file") List<FilePart> fileParts,
+                                                              ServerHttpRequest request) {
+        if (fileParts.isEmpty()) {
+            return Mono.just(badRequest("File is missing"));
+        }
+        for (FilePart filePart : fileParts) {
+            if (!isSupported(filePart.filename())) {
+                return Mono.just(badRequest("Unsupported file format: " + filePart.filename()));
+            }
+        }
+
+        Flux<ImportSource> sources = Flux.fromIterable(fileParts)
+                .flatMapSequential(this::parseSources, properties.parallelism());
+
+        return admissionService.admit(clientId(request), request.getHeaders().getContentLength(),
+                        () -> importService.importSources(sources))
+                .map(result -> ResponseEntity.ok(result));
+    }
 
-        String filename = filePart.filename().toLowerCase(Locale.ROOT);
-        Flux<AwardUploadRow> rowsFlux;
+    private boolean isSupported(String filename) {
+        String name = filename.toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") || name.endsWith(".xlsx");
+    }
 
-        if (filename.endsWith(".csv")) {
-            rowsFlux = filePart.content()
-                    .reduce(DataBuffer::write)
-                    .map(dataBuffer -> {
-                        byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                        dataBuffer.read(bytes);
-                        DataBufferUtils.release(dataBuffer);
-                        return new ByteArrayInputStream(bytes);
-                    })
-                    .flatMapMany(csvParser::parse);
-        } else if (filename.endsWith(".xlsx")) {
-            rowsFlux = filePart.content()
-                    .reduce(DataBuffer::write)
-                    .map(dataBuffer -> {
-                        byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                        dataBuffer.read(bytes);
-                        DataBufferUtils.release(dataBuffer);
-                        return new ByteArrayInputStream(bytes);
-                    })
-                    .flatMapMany(excelParser::parse);
-        } else {
-            return Mono.just(ResponseEntity
-                    .badRequest()
-                    .body(new ImportResultDto(0, 0, 0,
-                            List.of(ImportErrorDto.builder()
-                                            .rowNumber(0)
-                                            .message("Unsupported file format")
-                                    .build())
-                    )));
+    private Flux<ImportSource> parseSources(FilePart filePart) {
+        Mono<ByteArrayInputStream> content = filePart.content()
+                .reduce(DataBuffer::write)
+                .map(dataBuffer -> {
+                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
+                    dataBuffer.read(bytes);
+                    DataBufferUtils.release(dataBuffer);
+                    return new ByteArrayInputStream(bytes);
+                })
+                .publishOn(Schedulers.boundedElastic());
+
+        String filename = filePart.filename();
+        if (filename.toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            return content.flatMapMany(in -> csvParser.parseSources(in, filename));
         }
+        return content.flatMapMany(in -> excelParser.parseSources(in, filename));
+    }
 
-        return importService.importAwards(rowsFlux)
-                .map(result -> ResponseEntity.ok(result));
+    private ResponseEntity<ImportResultDto> badRequest(String message) {
+        return ResponseEntity
+                .badRequest()
+                .body(new ImportResultDto(0, 0, 0,
+                        List.of(ImportErrorDto.builder()
+                                .rowNumber(0)
+                                .message(message)
+                                .build())
+                ));
+    }
+
+    @GetMapping(value = "/import/{importId}/errors", produces = "text/csv")
+    public Mono<ResponseEntity<Flux<String>>> downloadErrors(@PathVariable Long importId) {
+        return errorReportService.findErrorCsv(importId)
+                .map(csv -> ResponseEntity.ok()
+                        .contentType(TEXT_CSV)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                .filename("import-" + importId + "-errors.csv")
+                                .build()
+                                .toString())
+                        .body(csv))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(ImportRejectedException.class)
+    public ResponseEntity<ImportResultDto> handleRejected(ImportRejectedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(new ImportResultDto(0, 0, 0,
+                        List.of(ImportErrorDto.builder()
+                                .rowNumber(0)
+                                .message(ex.getMessage())
+                                .build())
+                ));
+    }
+
+    @ExceptionHandler(ImportFormatException.class)
+    public ResponseEntity<ImportResultDto> handleFormat(ImportFormatException ex) {
+        return ResponseEntity
+                .badRequest()
+                .body(new ImportResultDto(0, 0, 0,
+                        List.of(ImportErrorDto.builder()
+                                .rowNumber(1)
+                                .message(ex.getMessage())
+                                .build())
+                ));
+    }
+
+    /**
+     * Key of the per-client admission queue. The {@code X-Client-Id} header is not authenticated,
+     * so it only separates trusted internal callers: a client that sends a new value with every
+     * request is not held to {@code max-queued-per-client}, only to {@code max-queued-imports}.
+     * Without the header the remote address is used.
+     */
+    private String clientId(ServerHttpRequest request) {
+        String clientId = request.getHeaders().getFirst(CLIENT_ID_HEADER);
+        if (clientId != null && !clientId.isBlank()) {
+            return clientId;
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null ? remoteAddress.getHostString() : "anonymous";
     }
 }
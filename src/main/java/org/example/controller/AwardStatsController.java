@@ -0,0 +1,35 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.dto.AwardMonthlyStatDto;
+import org.example.model.dto.EmployeeAwardStatDto;
+import org.example.service.AwardStatsService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/api/v1/awards/stats")
+@RequiredArgsConstructor
+public class AwardStatsController {
+    private final AwardStatsService statsService;
+
+    @GetMapping("/monthly")
+    public Flux<AwardMonthlyStatDto> monthlyStats(
+            @RequestParam(required = false) String awardCode,
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+        return statsService.monthlyStats(awardCode, from, to);
+    }
+
+    @GetMapping("/employees")
+    public Flux<EmployeeAwardStatDto> employeeStats(
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) String awardCode) {
+        return statsService.employeeStats(employeeId, awardCode);
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Getter @Setter @AllArgsConstructor @NoArgsConstructor @EqualsAndHashCode
+@Table("award_import")
+public class AwardImport {
+
+    @Id
+    private Long id;
+
+    @Column("total_rows")
+    private int totalRows;
+
+    @Column("imported_rows")
+    private int importedRows;
+
+    @Column("skipped_rows")
+    private int skippedRows;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,39 @@
+package org.example.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * All rows of one import that failed for the same reason. The rows are kept as ranges,
+ * e.g. {@code 3-9981,10002}.
+ */
+@Getter @Setter @AllArgsConstructor @NoArgsConstructor @EqualsAndHashCode
+@Table("award_import_error")
+public class AwardImportError {
+
+    @Id
+    private Long id;
+
+    @Column("import_id")
+    private Long importId;
+
+    @Column("source")
+    private String source;
+
+    @Column("error_type")
+    private ImportErrorType errorType;
+
+    @Column("cause")
+    private String cause;
+
+    @Column("message")
+    private String message;
+
+    @Column("row_count")
+    private int rowCount;
+
+    @Column("row_ranges")
+    private String rowRanges;
+}
@@ -0,0 +1,9 @@
+package org.example.model;
+
+public enum ImportErrorType {
+    INVALID_FORMAT,
+    INVALID_ROW,
+    EMPLOYEE_NOT_FOUND,
+    DUPLICATE_AWARD,
+    SAVE_FAILED
+}
@@ -0,0 +1,213 @@
+package org.example.model.batch;
+
+import org.example.model.dto.AwardUploadRow;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A block of parsed award rows stored column by column.
+ * <p>
+ * Ids, dates and row numbers are primitive arrays and the string columns are codes into a
+ * dictionary shared by the batch, so a batch costs a handful of objects no matter how many
+ * rows it holds. {@link #rows()} gives an {@link AwardUploadRow} view for code that still
+ * works row by row.
+ * <p>
+ * Rows the parser could not read are kept apart as invalid rows with a short reason, so one bad
+ * line does not stop the rest of the file from being imported.
+ */
+public final class AwardRowBatch {
+    public static final int DEFAULT_SIZE = 1000;
+
+    private final int size;
+    private final int[] rowNumbers;
+    private final long[] employeeIds;
+    private final int[] employeeNames;
+    private final int[] awardCodes;
+    private final int[] awardNames;
+    private final int[] awardEpochDays;
+    private final String[] dictionary;
+    private final int invalidCount;
+    private final int[] invalidRowNumbers;
+    private final String[] invalidReasons;
+
+    private AwardRowBatch(Builder builder) {
+        this.size = builder.size;
+        this.rowNumbers = builder.rowNumbers;
+        this.employeeIds = builder.employeeIds;
+        this.employeeNames = builder.employeeNames;
+        this.awardCodes = builder.awardCodes;
+        this.awardNames = builder.awardNames;
+        this.awardEpochDays = builder.awardEpochDays;
+        this.dictionary = builder.dictionary.values();
+        this.invalidCount = builder.invalidCount;
+        this.invalidRowNumbers = builder.invalidRowNumbers;
+        this.invalidReasons = builder.invalidReasons;
+    }
+
+    public static Builder builder(int capacity) {
+        return new Builder(capacity);
+    }
+
+    public static AwardRowBatch of(List<AwardUploadRow> rows) {
+        Builder builder = builder(rows.size());
+        for (AwardUploadRow row : rows) {
+            builder.add(row.getRowNumber(), row.getEmployeeId(), row.getEmployeeFullName(),
+                    row.getAwardCode(), row.getAwardName(), (int) row.getAwardDate().toEpochDay());
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int rowNumber(int index) {
+        return rowNumbers[index];
+    }
+
+    public long employeeId(int index) {
+        return employeeIds[index];
+    }
+
+    public String employeeFullName(int index) {
+        return dictionary[employeeNames[index]];
+    }
+
+    public String awardCode(int index) {
+        return dictionary[awardCodes[index]];
+    }
+
+    public String awardName(int index) {
+        return dictionary[awardNames[index]];
+    }
+
+    public int awardEpochDay(int index) {
+        return awardEpochDays[index];
+    }
+
+    public LocalDate awardDate(int index) {
+        return LocalDate.ofEpochDay(awardEpochDays[index]);
+    }
+
+    /**
+     * @return number of rows that could not be parsed; they are not part of {@link #size()}
+     */
+    public int invalidCount() {
+        return invalidCount;
+    }
+
+    public int invalidRowNumber(int index) {
+        return invalidRowNumbers[index];
+    }
+
+    public String invalidReason(int index) {
+        return invalidReasons[index];
+    }
+
+    public AwardUploadRow row(int index) {
+        return new AwardUploadRow(employeeId(index), employeeFullName(index), awardCode(index),
+                awardName(index), awardDate(index), rowNumber(index));
+    }
+
+    /**
+     * @return a view that creates an {@link AwardUploadRow} on every access; invalid rows are not included
+     */
+    public List<AwardUploadRow> rows() {
+        return new AbstractList<>() {
+            @Override
+            public AwardUploadRow get(int index) {
+                return row(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public static final class Builder {
+        private final StringDictionary dictionary = new StringDictionary();
+        private final int capacity;
+        private int size;
+        private int[] rowNumbers;
+        private long[] employeeIds;
+        private int[] employeeNames;
+        private int[] awardCodes;
+        private int[] awardNames;
+        private int[] awardEpochDays;
+        private int invalidCount;
+        private int[] invalidRowNumbers = new int[0];
+        private String[] invalidReasons = new String[0];
+
+        private Builder(int capacity) {
+            this.capacity = capacity;
+            this.rowNumbers = new int[capacity];
+            this.employeeIds = new long[capacity];
+            this.employeeNames = new int[capacity];
+            this.awardCodes = new int[capacity];
+            this.awardNames = new int[capacity];
+            this.awardEpochDays = new int[capacity];
+        }
+
+        public Builder add(int rowNumber, long employeeId, String employeeFullName,
+                           String awardCode, String awardName, int awardEpochDay) {
+            if (isFull()) {
+                throw new IllegalStateException("Batch is full");
+            }
+            rowNumbers[size] = rowNumber;
+            employeeIds[size] = employeeId;
+            employeeNames[size] = dictionary.code(employeeFullName);
+            awardCodes[size] = dictionary.code(awardCode);
+            awardNames[size] = dictionary.code(awardName);
+            awardEpochDays[size] = awardEpochDay;
+            size++;
+            return this;
+        }
+
+        /**
+         * Records a row that could not be parsed. It takes a place in the batch like a valid row.
+         */
+        public Builder addInvalid(int rowNumber, String reason) {
+            if (isFull()) {
+                throw new IllegalStateException("Batch is full");
+            }
+            if (invalidCount == invalidRowNumbers.length) {
+                int length = Math.max(8, invalidCount * 2);
+                invalidRowNumbers = Arrays.copyOf(invalidRowNumbers, length);
+                invalidReasons = Arrays.copyOf(invalidReasons, length);
+            }
+            invalidRowNumbers[invalidCount] = rowNumber;
+            invalidReasons[invalidCount] = reason;
+            invalidCount++;
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return size == 0 && invalidCount == 0;
+        }
+
+        public boolean isFull() {
+            return size + invalidCount == capacity;
+        }
+
+        public AwardRowBatch build() {
+            if (size < capacity) {
+                rowNumbers = Arrays.copyOf(rowNumbers, size);
+                employeeIds = Arrays.copyOf(employeeIds, size);
+                employeeNames = Arrays.copyOf(employeeNames, size);
+                awardCodes = Arrays.copyOf(awardCodes, size);
+                awardNames = Arrays.copyOf(awardNames, size);
+                awardEpochDays = Arrays.copyOf(awardEpochDays, size);
+            }
+            if (invalidCount < invalidRowNumbers.length) {
+                invalidRowNumbers = Arrays.copyOf(invalidRowNumbers, invalidCount);
+                invalidReasons = Arrays.copyOf(invalidReasons, invalidCount);
+            }
+            return new AwardRowBatch(this);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.model.batch;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * One part of an import request - a CSV file or a single sheet of a workbook.
+ *
+ * @param name    file name, with the sheet name for workbooks (e.g. {@code awards.xlsx#Sheet1})
+ * @param batches the parsed rows of this part
+ */
+public record ImportSource(String name, Flux<AwardRowBatch> batches) {
+    public static final String DEFAULT_NAME = "upload";
+}
@@ -0,0 +1,29 @@
+package org.example.model.batch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns a small int code to each distinct string, so repeated values such as award codes
+ * and names are held once per batch.
+ */
+class StringDictionary {
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int code(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    String[] values() {
+        return values.toArray(new String[0]);
+    }
+}
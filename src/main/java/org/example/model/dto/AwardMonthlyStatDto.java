@@ -0,0 +1,15 @@
+package org.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+@Data @AllArgsConstructor @NoArgsConstructor @Builder
+public class AwardMonthlyStatDto {
+    private String awardCode;
+    private YearMonth month;
+    private long count;
+}
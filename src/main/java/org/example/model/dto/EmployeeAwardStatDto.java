@@ -0,0 +1,13 @@
+package org.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data @AllArgsConstructor @NoArgsConstructor @Builder
+public class EmployeeAwardStatDto {
+    private Long employeeId;
+    private String awardCode;
+    private long count;
+}
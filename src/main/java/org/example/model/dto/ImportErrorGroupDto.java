@@ -0,0 +1,16 @@
+package org.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.ImportErrorType;
+
+@Data @AllArgsConstructor @NoArgsConstructor @Builder
+public class ImportErrorGroupDto {
+    private String source;
+    private ImportErrorType type;
+    private String message;
+    private int rowCount;
+    private String rows;
+}
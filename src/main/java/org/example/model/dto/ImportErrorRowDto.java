@@ -0,0 +1,15 @@
+package org.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.ImportErrorType;
+
+@Data @AllArgsConstructor @NoArgsConstructor @Builder
+public class ImportErrorRowDto {
+    private String source;
+    private int rowNumber;
+    private ImportErrorType errorType;
+    private String message;
+}
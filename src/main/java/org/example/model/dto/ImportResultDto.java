@@ -13,4 +13,11 @@ public class ImportResultDto {
     private int importedRows;
     private int skippedRows;
     private List<ImportErrorDto> errors;
-}
\ No newline at end of file
+    private Long importId;
+    private List<ImportErrorGroupDto> errorGroups;
+    private List<ImportSourceResultDto> sources;
+
+    public ImportResultDto(int totalRows, int importedRows, int skippedRows, List<ImportErrorDto> errors) {
+        this(totalRows, importedRows, skippedRows, errors, null, List.of(), List.of());
+    }
+}
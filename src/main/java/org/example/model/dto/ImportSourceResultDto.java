@@ -0,0 +1,14 @@
+package org.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data @AllArgsConstructor @NoArgsConstructor @Builder
+public class ImportSourceResultDto {
+    private String source;
+    private int totalRows;
+    private int importedRows;
+    private int skippedRows;
+}
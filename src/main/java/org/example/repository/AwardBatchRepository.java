@@ -0,0 +1,19 @@
+package org.example.repository;
+
+import org.example.model.batch.AwardRowBatch;
+import reactor.core.publisher.Mono;
+
+import java.util.BitSet;
+
+public interface AwardBatchRepository {
+
+    /**
+     * Inserts the selected rows of the batch and adds the inserted ones to the award statistics,
+     * all in a single statement. Rows that already exist (or repeat an earlier row of the batch)
+     * are skipped. The statement is atomic, so awards and statistics never diverge.
+     *
+     * @param rows indexes of the batch rows to insert
+     * @return indexes of the rows that were actually inserted
+     */
+    Mono<BitSet> insertBatch(AwardRowBatch batch, BitSet rows);
+}
@@ -0,0 +1,85 @@
+package org.example.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.batch.AwardRowBatch;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.util.BitSet;
+
+@RequiredArgsConstructor
+public class AwardBatchRepositoryImpl implements AwardBatchRepository {
+    private static final String INSERT_BATCH = """
+            WITH src AS (
+                SELECT *
+                FROM unnest($1::bigint[], $2::varchar[], $3::varchar[], $4::int[])
+                    WITH ORDINALITY AS s(employee_id, award_code, award_name, award_day, ord)
+            ), dedup AS (
+                SELECT DISTINCT ON (employee_id, award_code, award_day) *
+                FROM src
+                ORDER BY employee_id, award_code, award_day, ord
+            ), inserted AS (
+                INSERT INTO award (employee_id, award_code, award_name, award_date)
+                SELECT employee_id, award_code, award_name, DATE '1970-01-01' + award_day
+                FROM dedup
+                ON CONFLICT (employee_id, award_code, award_date) DO NOTHING
+                RETURNING employee_id, award_code, award_date
+            ), monthly AS (
+                INSERT INTO award_stats_monthly (award_code, award_month, award_count)
+                SELECT award_code, date_trunc('month', award_date)::date, COUNT(*)
+                FROM inserted
+                GROUP BY 1, 2
+                ORDER BY 1, 2
+                ON CONFLICT (award_code, award_month)
+                    DO UPDATE SET award_count = award_stats_monthly.award_count + EXCLUDED.award_count
+            ), per_employee AS (
+                INSERT INTO award_stats_employee (employee_id, award_code, award_count)
+                SELECT employee_id, award_code, COUNT(*)
+                FROM inserted
+                GROUP BY 1, 2
+                ORDER BY 1, 2
+                ON CONFLICT (employee_id, award_code)
+                    DO UPDATE SET award_count = award_stats_employee.award_count + EXCLUDED.award_count
+            )
+            SELECT dedup.ord::int
+            FROM dedup
+            JOIN inserted ON inserted.employee_id = dedup.employee_id
+                AND inserted.award_code = dedup.award_code
+                AND inserted.award_date = DATE '1970-01-01' + dedup.award_day
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<BitSet> insertBatch(AwardRowBatch batch, BitSet rows) {
+        int count = rows.cardinality();
+        if (count == 0) {
+            return Mono.just(new BitSet());
+        }
+
+        int[] indexes = new int[count];
+        Long[] employeeIds = new Long[count];
+        String[] awardCodes = new String[count];
+        String[] awardNames = new String[count];
+        Integer[] awardDays = new Integer[count];
+
+        int n = 0;
+        for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+            indexes[n] = i;
+            employeeIds[n] = batch.employeeId(i);
+            awardCodes[n] = batch.awardCode(i);
+            awardNames[n] = batch.awardName(i);
+            awardDays[n] = batch.awardEpochDay(i);
+            n++;
+        }
+
+        return databaseClient.sql(INSERT_BATCH)
+                .bind(0, employeeIds)
+                .bind(1, awardCodes)
+                .bind(2, awardNames)
+                .bind(3, awardDays)
+                .map((row, meta) -> row.get(0, Integer.class))
+                .all()
+                .collect(BitSet::new, (inserted, ordinal) -> inserted.set(indexes[ordinal - 1]));
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.repository;
+
+import org.example.model.AwardImportError;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface AwardImportErrorRepository extends ReactiveCrudRepository<AwardImportError, Long>,
+        AwardImportErrorRowRepository {
+}
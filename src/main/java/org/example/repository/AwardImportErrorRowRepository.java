@@ -0,0 +1,13 @@
+package org.example.repository;
+
+import org.example.model.dto.ImportErrorRowDto;
+import reactor.core.publisher.Flux;
+
+public interface AwardImportErrorRowRepository {
+
+    /**
+     * Expands the stored row ranges of an import into one entry per failed row, ordered by
+     * source and row number. The rows are produced by the database and streamed as they are read.
+     */
+    Flux<ImportErrorRowDto> findRowsByImportId(Long importId);
+}
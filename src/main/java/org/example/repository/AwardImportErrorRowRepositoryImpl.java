@@ -0,0 +1,36 @@
+package org.example.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.ImportErrorType;
+import org.example.model.dto.ImportErrorRowDto;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+@RequiredArgsConstructor
+public class AwardImportErrorRowRepositoryImpl implements AwardImportErrorRowRepository {
+    private static final String FIND_ROWS = """
+            SELECT e.source, r.row_number, e.error_type, e.message
+            FROM award_import_error e
+            CROSS JOIN LATERAL unnest(string_to_array(e.row_ranges, ',')) AS rr(row_range)
+            CROSS JOIN LATERAL generate_series(
+                    split_part(rr.row_range, '-', 1)::int,
+                    COALESCE(NULLIF(split_part(rr.row_range, '-', 2), ''), split_part(rr.row_range, '-', 1))::int
+                ) AS r(row_number)
+            WHERE e.import_id = $1
+            ORDER BY e.source, r.row_number, e.id
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<ImportErrorRowDto> findRowsByImportId(Long importId) {
+        return databaseClient.sql(FIND_ROWS)
+                .bind(0, importId)
+                .map((row, meta) -> new ImportErrorRowDto(
+                        row.get("source", String.class),
+                        row.get("row_number", Integer.class),
+                        ImportErrorType.valueOf(row.get("error_type", String.class)),
+                        row.get("message", String.class)))
+                .all();
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.repository;
+
+import org.example.model.AwardImport;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface AwardImportRepository extends ReactiveCrudRepository<AwardImport, Long> {
+}
@@ -3,5 +3,5 @@ package org.example.repository;
 import org.example.model.Award;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 
-public interface AwardRepository extends ReactiveCrudRepository<Award, Long> {
+public interface AwardRepository extends ReactiveCrudRepository<Award, Long>, AwardBatchRepository {
 }
@@ -0,0 +1,69 @@
+package org.example.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.dto.AwardMonthlyStatDto;
+import org.example.model.dto.EmployeeAwardStatDto;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Award counts per award code and month and per employee and award code, so dashboards do
+ * not have to aggregate the whole award table. The counts are kept up to date by the batch
+ * insert of every import (see {@link AwardBatchRepository}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class AwardStatsRepository {
+    private static final String FIND_MONTHLY = """
+            SELECT award_code, award_month, award_count
+            FROM award_stats_monthly
+            WHERE ($1::varchar IS NULL OR award_code = $1)
+              AND ($2::date IS NULL OR award_month >= $2)
+              AND ($3::date IS NULL OR award_month <= $3)
+            ORDER BY award_month, award_code
+            """;
+
+    private static final String FIND_PER_EMPLOYEE = """
+            SELECT employee_id, award_code, award_count
+            FROM award_stats_employee
+            WHERE ($1::bigint IS NULL OR employee_id = $1)
+              AND ($2::varchar IS NULL OR award_code = $2)
+            ORDER BY employee_id, award_code
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<AwardMonthlyStatDto> findMonthly(String awardCode, LocalDate from, LocalDate to) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(FIND_MONTHLY);
+        spec = bindNullable(spec, 0, awardCode, String.class);
+        spec = bindNullable(spec, 1, from, LocalDate.class);
+        spec = bindNullable(spec, 2, to, LocalDate.class);
+        return spec
+                .map((row, meta) -> new AwardMonthlyStatDto(
+                        row.get("award_code", String.class),
+                        YearMonth.from(row.get("award_month", LocalDate.class)),
+                        row.get("award_count", Long.class)))
+                .all();
+    }
+
+    public Flux<EmployeeAwardStatDto> findPerEmployee(Long employeeId, String awardCode) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(FIND_PER_EMPLOYEE);
+        spec = bindNullable(spec, 0, employeeId, Long.class);
+        spec = bindNullable(spec, 1, awardCode, String.class);
+        return spec
+                .map((row, meta) -> new EmployeeAwardStatDto(
+                        row.get("employee_id", Long.class),
+                        row.get("award_code", String.class),
+                        row.get("award_count", Long.class)))
+                .all();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  int index, Object value, Class<?> type) {
+        return value != null ? spec.bind(index, value) : spec.bindNull(index, type);
+    }
+}
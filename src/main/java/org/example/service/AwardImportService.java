@@ -1,86 +1,205 @@
 package org.example.service;
 
+import io.r2dbc.spi.R2dbcException;
 import lombok.RequiredArgsConstructor;
-import org.example.model.Award;
-import org.example.model.Employee;
+import org.example.config.AwardImportProperties;
+import org.example.model.AwardImport;
+import org.example.model.AwardImportError;
+import org.example.model.ImportErrorType;
+import org.example.model.batch.AwardRowBatch;
+import org.example.model.batch.ImportSource;
 import org.example.model.dto.AwardUploadRow;
-import org.example.model.dto.ImportErrorDto;
+import org.example.model.dto.ImportErrorGroupDto;
 import org.example.model.dto.ImportResultDto;
+import org.example.model.dto.ImportSourceResultDto;
+import org.example.repository.AwardImportErrorRepository;
+import org.example.repository.AwardImportRepository;
 import org.example.repository.AwardRepository;
 import org.example.repository.EmployeeRepository;
+import org.example.service.parser.ImportFormatException;
+import org.example.service.report.ImportErrorCollector;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AwardImportService {
+    private static final int HEADER_ROW = 1;
+
     private final EmployeeRepository employeeRepository;
     private final AwardRepository awardRepository;
+    private final AwardImportRepository importRepository;
+    private final AwardImportErrorRepository importErrorRepository;
+    private final AwardImportProperties properties;
 
     public Mono<ImportResultDto> importAwards(Flux<AwardUploadRow> rows) {
-        List<ImportErrorDto> errors = new ArrayList<>();
+        return importBatches(rows
+                .buffer(AwardRowBatch.DEFAULT_SIZE)
+                .map(AwardRowBatch::of));
+    }
+
+    public Mono<ImportResultDto> importBatches(Flux<AwardRowBatch> batches) {
+        return importSources(Flux.just(new ImportSource(ImportSource.DEFAULT_NAME, batches)));
+    }
+
+    /**
+     * Imports all sources of one request, up to {@code award.import.parallelism} of them at a time.
+     * The sources share one employee lookup. An award repeated across sources is inserted by
+     * whichever source gets to it first and reported as a duplicate by the others.
+     * <p>
+     * The sources are collected before the first one is imported, so a file whose header is not
+     * in the upload format fails the request without importing anything. The parsers check headers
+     * when they emit a source and read its rows only when it is imported.
+     * <p>
+     * A source that turns out not to be in the upload format is reported as one INVALID_FORMAT
+     * error of that source; the other sources are imported as usual.
+     */
+    public Mono<ImportResultDto> importSources(Flux<ImportSource> sources) {
+        return sources
+                .collectList()
+                .flatMap(sourceList -> {
+                    ImportContext context = new ImportContext(employeeRepository);
+                    return Flux.fromIterable(sourceList)
+                            .flatMapSequential(source -> importSource(source, context), properties.parallelism())
+                            .collectList();
+                })
+                .flatMap(this::saveResult);
+    }
+
+    private Mono<SourceResult> importSource(ImportSource source, ImportContext context) {
+        ImportErrorCollector errors = new ImportErrorCollector(source.name());
         AtomicInteger total = new AtomicInteger();
         AtomicInteger imported = new AtomicInteger();
 
-        Mono<Set<Long>> existingEmployeeIdsMono = rows
-                .map(AwardUploadRow::getEmployeeId)
-                .collect(Collectors.toSet())
-                .flatMap(ids ->
-                        employeeRepository.findAllById(Flux.fromIterable(ids))
-                                .map(Employee::getId)
-                                .collect(Collectors.toSet())
-                );
-
-        return existingEmployeeIdsMono.flatMapMany(existingIds ->
-                        rows.flatMap(row -> {
-                                    total.incrementAndGet();
-
-                                    if (!existingIds.contains(row.getEmployeeId())) {
-                                        errors.add(ImportErrorDto.builder()
-                                                .rowNumber(row.getRowNumber())
-                                                .message("Employee with id " + row.getEmployeeId() + " not found")
-                                                .build()
-                                        );
-                                        return Mono.empty();
-                                    }
-
-                                    Award award = new Award();
-                                    award.setEmployeeId(row.getEmployeeId());
-                                    award.setAwardCode(row.getAwardCode());
-                                    award.setAwardName(row.getAwardName());
-                                    award.setAwardDate(row.getAwardDate());
-                                    award.setCreatedAt(LocalDateTime.now());
-
-                                    return awardRepository.save(award)
-                                            .doOnSuccess(saved -> imported.incrementAndGet())
-                                            .onErrorResume(ex -> {
-                                                errors.add(ImportErrorDto.builder()
-                                                        .rowNumber(row.getRowNumber())
-                                                        .message("Error with save award: " + ex.getMessage())
-                                                        .build()
-                                                );
-                                                return Mono.empty();
-                                            });
-                                }
-                        ))
-                .then(Mono.fromSupplier(() -> {
-                    int totalRows = total.get();
-                    int importedRows = imported.get();
-                    int skippedRows = totalRows - importedRows;
-                    return ImportResultDto.builder()
-                            .totalRows(totalRows)
-                            .importedRows(importedRows)
-                            .skippedRows(skippedRows)
-                            .errors(errors)
-                            .build();
-                }));
+        return source.batches()
+                .subscribeOn(Schedulers.boundedElastic())
+                .concatMap(batch -> {
+                    total.addAndGet(batch.size() + batch.invalidCount());
+                    addInvalidRows(errors, batch);
+                    return context.resolveEmployees(batch)
+                            .then(Mono.defer(() -> insertBatch(batch, context, errors)))
+                            .doOnNext(imported::addAndGet);
+                })
+                .onErrorResume(ImportFormatException.class, e -> {
+                    errors.add(ImportErrorType.INVALID_FORMAT, ImportErrorType.INVALID_FORMAT.name(),
+                            HEADER_ROW, e::getMessage);
+                    return Mono.empty();
+                })
+                .then(Mono.fromSupplier(() -> new SourceResult(source.name(), total.get(), imported.get(), errors)));
+    }
+
+    private static void addInvalidRows(ImportErrorCollector errors, AwardRowBatch batch) {
+        for (int i = 0; i < batch.invalidCount(); i++) {
+            String reason = batch.invalidReason(i);
+            errors.add(ImportErrorType.INVALID_ROW, reason, batch.invalidRowNumber(i), () -> reason);
+        }
+    }
+
+    /**
+     * Inserts the rows of existing employees; the award statistics are updated by the same statement.
+     */
+    private Mono<Integer> insertBatch(AwardRowBatch batch, ImportContext context, ImportErrorCollector errors) {
+        BitSet selected = new BitSet(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            long employeeId = batch.employeeId(i);
+            if (!context.employeeExists(employeeId)) {
+                errors.add(ImportErrorType.EMPLOYEE_NOT_FOUND,
+                        String.valueOf(employeeId),
+                        batch.rowNumber(i),
+                        () -> "Employee with id " + employeeId + " not found");
+            } else {
+                selected.set(i);
+            }
+        }
+        if (selected.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        return awardRepository.insertBatch(batch, selected)
+                .map(inserted -> {
+                    for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+                        if (!inserted.get(i)) {
+                            addDuplicate(errors, batch, i);
+                        }
+                    }
+                    return inserted.cardinality();
+                })
+                .onErrorResume(ex -> {
+                    String cause = saveFailureCause(ex);
+                    for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+                        errors.add(ImportErrorType.SAVE_FAILED,
+                                cause,
+                                batch.rowNumber(i),
+                                () -> "Error with save award: " + ex.getMessage());
+                    }
+                    return Mono.just(0);
+                });
+    }
+
+    /**
+     * Groups save failures by what went wrong rather than by exception class: one driver
+     * exception type covers different constraint violations, each with its own message.
+     */
+    private static String saveFailureCause(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof R2dbcException r2dbcException && r2dbcException.getSqlState() != null) {
+                return r2dbcException.getSqlState() + " " + r2dbcException.getMessage();
+            }
+        }
+        return ex.getClass().getName() + " " + ex.getMessage();
+    }
+
+    private static void addDuplicate(ImportErrorCollector errors, AwardRowBatch batch, int index) {
+        errors.add(ImportErrorType.DUPLICATE_AWARD,
+                ImportErrorType.DUPLICATE_AWARD.name(),
+                batch.rowNumber(index),
+                () -> "Award already exists");
+    }
+
+    private Mono<ImportResultDto> saveResult(List<SourceResult> results) {
+        int totalRows = 0;
+        int importedRows = 0;
+        List<ImportSourceResultDto> sources = new ArrayList<>(results.size());
+        List<ImportErrorGroupDto> errorGroups = new ArrayList<>();
+        for (SourceResult result : results) {
+            totalRows += result.totalRows();
+            importedRows += result.importedRows();
+            sources.add(ImportSourceResultDto.builder()
+                    .source(result.name())
+                    .totalRows(result.totalRows())
+                    .importedRows(result.importedRows())
+                    .skippedRows(result.totalRows() - result.importedRows())
+                    .build());
+            errorGroups.addAll(result.errors().toDtos());
+        }
+
+        ImportResultDto.ImportResultDtoBuilder resultDto = ImportResultDto.builder()
+                .totalRows(totalRows)
+                .importedRows(importedRows)
+                .skippedRows(totalRows - importedRows)
+                .errors(List.of())
+                .errorGroups(errorGroups)
+                .sources(sources);
+
+        AwardImport awardImport = new AwardImport(null, totalRows, importedRows, totalRows - importedRows,
+                LocalDateTime.now());
+        return importRepository.save(awardImport)
+                .flatMap(saved -> {
+                    List<AwardImportError> records = new ArrayList<>();
+                    results.forEach(result -> records.addAll(result.errors().toRecords(saved.getId())));
+                    return importErrorRepository.saveAll(records)
+                            .then(Mono.fromSupplier(() -> resultDto.importId(saved.getId()).build()));
+                });
+    }
+
+    private record SourceResult(String name, int totalRows, int importedRows, ImportErrorCollector errors) {
     }
 }
@@ -0,0 +1,27 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.dto.AwardMonthlyStatDto;
+import org.example.model.dto.EmployeeAwardStatDto;
+import org.example.repository.AwardStatsRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+@Service
+@RequiredArgsConstructor
+public class AwardStatsService {
+    private final AwardStatsRepository statsRepository;
+
+    public Flux<AwardMonthlyStatDto> monthlyStats(String awardCode, YearMonth from, YearMonth to) {
+        LocalDate fromMonth = from != null ? from.atDay(1) : null;
+        LocalDate toMonth = to != null ? to.atDay(1) : null;
+        return statsRepository.findMonthly(awardCode, fromMonth, toMonth);
+    }
+
+    public Flux<EmployeeAwardStatDto> employeeStats(Long employeeId, String awardCode) {
+        return statsRepository.findPerEmployee(employeeId, awardCode);
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.service;
+
+import org.example.model.Employee;
+import org.example.model.batch.AwardRowBatch;
+import org.example.repository.EmployeeRepository;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * State shared by all sources of one import request: which employees exist.
+ * <p>
+ * Awards are not tracked here. When two sources carry the same award, the unique constraint
+ * decides which insert wins, so the cost of a request stays per employee, not per row.
+ */
+class ImportContext {
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeTable employees = new EmployeeTable();
+
+    ImportContext(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Looks up the employee ids of the batch that no source has resolved yet, with one query.
+     * Only the distinct unknown ids are boxed for the query.
+     */
+    Mono<Void> resolveEmployees(AwardRowBatch batch) {
+        long[] ids = new long[batch.size()];
+        int count = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            long employeeId = batch.employeeId(i);
+            if (employees.state(employeeId) == EmployeeTable.UNKNOWN) {
+                ids[count++] = employeeId;
+            }
+        }
+        if (count == 0) {
+            return Mono.empty();
+        }
+
+        Arrays.sort(ids, 0, count);
+        List<Long> unknownIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                unknownIds.add(ids[i]);
+            }
+        }
+
+        return employeeRepository.findAllById(unknownIds)
+                .map(Employee::getId)
+                .doOnNext(id -> employees.put(id, EmployeeTable.EXISTS))
+                .then(Mono.fromRunnable(() -> unknownIds.forEach(id -> employees.putIfUnknown(id, EmployeeTable.MISSING))));
+    }
+
+    boolean employeeExists(long employeeId) {
+        return employees.state(employeeId) == EmployeeTable.EXISTS;
+    }
+
+    /**
+     * Open-addressing map from employee id to lookup state, so rows are checked without boxing
+     * their ids. Sources of a request share it, hence the synchronized access.
+     */
+    private static final class EmployeeTable {
+        static final byte UNKNOWN = 0;
+        static final byte EXISTS = 1;
+        static final byte MISSING = 2;
+
+        private long[] keys = new long[64];
+        private byte[] states = new byte[64];
+        private int size;
+
+        synchronized byte state(long id) {
+            int slot = slot(keys, states, id);
+            return states[slot];
+        }
+
+        synchronized void put(long id, byte state) {
+            int slot = slot(keys, states, id);
+            if (states[slot] == UNKNOWN) {
+                keys[slot] = id;
+                size++;
+            }
+            states[slot] = state;
+            if (size * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        synchronized void putIfUnknown(long id, byte state) {
+            if (state(id) == UNKNOWN) {
+                put(id, state);
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            byte[] oldStates = states;
+            keys = new long[oldKeys.length * 2];
+            states = new byte[oldStates.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldStates[i] != UNKNOWN) {
+                    int slot = slot(keys, states, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    states[slot] = oldStates[i];
+                }
+            }
+        }
+
+        /**
+         * @return the slot holding {@code id}, or the free slot where it belongs
+         */
+        private static int slot(long[] keys, byte[] states, long id) {
+            int mask = keys.length - 1;
+            int slot = Long.hashCode(id * 0x9E3779B97F4A7C15L) & mask;
+            while (states[slot] != UNKNOWN && keys[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
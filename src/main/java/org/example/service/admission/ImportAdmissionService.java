@@ -0,0 +1,202 @@
+package org.example.service.admission;
+
+import org.example.config.AwardImportProperties;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Decides when an import may start.
+ * <p>
+ * An import runs only while both the concurrent-import limit and the memory budget allow it.
+ * Imports that do not fit wait in per-client queues which are served round-robin, so one busy
+ * client cannot starve the others. When the queue is full the import is rejected with
+ * {@link ImportRejectedException}.
+ */
+@Service
+public class ImportAdmissionService {
+    private final AwardImportProperties.Admission settings;
+
+    private final Map<String, Deque<Waiter>> queues = new HashMap<>();
+    private final Deque<String> rotation = new ArrayDeque<>();
+    private int queued;
+    private int running;
+    private long reservedBytes;
+
+    public ImportAdmissionService(AwardImportProperties properties) {
+        this.settings = properties.admission();
+    }
+
+    /**
+     * Runs {@code importTask} once the import is admitted and frees its slot when the task terminates
+     * or is cancelled.
+     *
+     * @param clientId    the client the import is queued for
+     * @param requestSize size of the upload in bytes, or a negative value when unknown
+     */
+    public <T> Mono<T> admit(String clientId, long requestSize, Supplier<Mono<T>> importTask) {
+        long weight = weightOf(requestSize);
+        return Mono.usingWhen(
+                acquire(clientId, weight),
+                permit -> importTask.get(),
+                Permit::release,
+                (permit, error) -> permit.release(),
+                Permit::release
+        );
+    }
+
+    private long weightOf(long requestSize) {
+        long budget = settings.memoryBudget().toBytes();
+        long size = requestSize > 0 ? requestSize : settings.defaultImportSize().toBytes();
+        return Math.min(size, budget);
+    }
+
+    private Mono<Permit> acquire(String clientId, long weight) {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(clientId, weight, sink);
+            // registered before the waiter can be queued or dispatched, so no cancellation is missed
+            sink.onCancel(() -> cancel(waiter));
+            Permit permit = null;
+            synchronized (this) {
+                if (waiter.cancelled) {
+                    return;
+                }
+                if (queued == 0 && fits(weight)) {
+                    permit = reserve(weight);
+                    waiter.permit = permit;
+                } else if (queued >= settings.maxQueuedImports()
+                        || queues.getOrDefault(clientId, new ArrayDeque<>()).size() >= settings.maxQueuedPerClient()) {
+                    sink.error(new ImportRejectedException(settings.retryAfter()));
+                    return;
+                } else {
+                    enqueue(waiter);
+                }
+            }
+            if (permit != null) {
+                sink.success(permit);
+            }
+        });
+    }
+
+    private boolean fits(long weight) {
+        return running < settings.maxConcurrentImports()
+                && (running == 0 || reservedBytes + weight <= settings.memoryBudget().toBytes());
+    }
+
+    private Permit reserve(long weight) {
+        running++;
+        reservedBytes += weight;
+        return new Permit(weight);
+    }
+
+    private void enqueue(Waiter waiter) {
+        Deque<Waiter> queue = queues.computeIfAbsent(waiter.clientId, id -> {
+            rotation.addLast(id);
+            return new ArrayDeque<>();
+        });
+        queue.addLast(waiter);
+        queued++;
+    }
+
+    private void cancel(Waiter waiter) {
+        Permit granted;
+        synchronized (this) {
+            waiter.cancelled = true;
+            Deque<Waiter> queue = queues.get(waiter.clientId);
+            if (queue == null || !queue.remove(waiter)) {
+                granted = waiter.permit;
+            } else {
+                queued--;
+                if (queue.isEmpty()) {
+                    queues.remove(waiter.clientId);
+                    rotation.remove(waiter.clientId);
+                }
+                granted = null;
+            }
+        }
+        if (granted != null) {
+            granted.release().subscribe();
+        } else {
+            // the removed waiter may have held back others that fit already
+            dispatch();
+        }
+    }
+
+    private void dispatch() {
+        List<Waiter> admitted = new ArrayList<>();
+        synchronized (this) {
+            while (!rotation.isEmpty()) {
+                String clientId = rotation.peekFirst();
+                Deque<Waiter> queue = queues.get(clientId);
+                Waiter next = queue.peekFirst();
+                if (!fits(next.weight)) {
+                    break;
+                }
+                queue.pollFirst();
+                queued--;
+                rotation.pollFirst();
+                if (queue.isEmpty()) {
+                    queues.remove(clientId);
+                } else {
+                    rotation.addLast(clientId);
+                }
+                next.permit = reserve(next.weight);
+                admitted.add(next);
+            }
+        }
+        admitted.forEach(waiter -> waiter.sink.success(waiter.permit));
+    }
+
+    synchronized int running() {
+        return running;
+    }
+
+    synchronized int queued() {
+        return queued;
+    }
+
+    private static final class Waiter {
+        private final String clientId;
+        private final long weight;
+        private final MonoSink<Permit> sink;
+        private Permit permit;
+        private boolean cancelled;
+
+        private Waiter(String clientId, long weight, MonoSink<Permit> sink) {
+            this.clientId = clientId;
+            this.weight = weight;
+            this.sink = sink;
+        }
+    }
+
+    private final class Permit {
+        private final long weight;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long weight) {
+            this.weight = weight;
+        }
+
+        private Mono<Void> release() {
+            return Mono.fromRunnable(() -> {
+                if (!released.compareAndSet(false, true)) {
+                    return;
+                }
+                synchronized (ImportAdmissionService.this) {
+                    running--;
+                    reservedBytes -= weight;
+                }
+                dispatch();
+            });
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.service.admission;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class ImportRejectedException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public ImportRejectedException(Duration retryAfter) {
+        super("Too many imports in progress, retry later");
+        this.retryAfter = retryAfter;
+    }
+}
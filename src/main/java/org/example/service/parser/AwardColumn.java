@@ -0,0 +1,66 @@
+package org.example.service.parser;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Columns of an award upload file and the header names they are recognized by.
+ * Header names are compared after {@link #normalize(String)}. Bare names such as "name" or
+ * "date" are deliberately not aliases: in HR exports they often mean another column.
+ */
+enum AwardColumn {
+    EMPLOYEE_ID(true, "employeeid", "empid", "идсотрудника", "табельныйномер"),
+    EMPLOYEE_FULL_NAME(false, "employeefullname", "fullname", "employeename", "фио", "сотрудник"),
+    AWARD_CODE(true, "awardcode", "коднаграды"),
+    AWARD_NAME(true, "awardname", "награда", "наименованиенаграды", "названиенаграды"),
+    AWARD_DATE(true, "awarddate", "датанаграды");
+
+    private static final Map<String, AwardColumn> BY_NAME = new HashMap<>();
+
+    static {
+        for (AwardColumn column : values()) {
+            for (String name : column.names) {
+                BY_NAME.put(name, column);
+            }
+        }
+    }
+
+    private final boolean required;
+    private final String[] names;
+
+    AwardColumn(boolean required, String... names) {
+        this.required = required;
+        this.names = names;
+    }
+
+    boolean isRequired() {
+        return required;
+    }
+
+    String headerName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static AwardColumn byHeader(String header) {
+        return BY_NAME.get(normalize(header));
+    }
+
+    /**
+     * Lower-cases the header and drops everything but letters and digits,
+     * so {@code "Employee ID"}, {@code "employee_id"} and {@code "employeeId"} are the same name.
+     */
+    static String normalize(String header) {
+        if (header == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(header.length());
+        for (int i = 0; i < header.length(); i++) {
+            char c = header.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.service.parser;
+
+import org.example.model.batch.AwardRowBatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column layout of one upload file, resolved once from its header row.
+ * <p>
+ * Rows are then read by fixed indexes without any name lookups. The date format is detected
+ * from the first date value and used for the rest of the file.
+ */
+public final class AwardColumnPlan {
+    private static final int ABSENT = -1;
+    private static final String NOT_ENOUGH_COLUMNS = "Not enough columns";
+
+    private final int[] indexes;
+    private final int width;
+    private AwardDateFormat dateFormat;
+
+    private AwardColumnPlan(int[] indexes) {
+        this.indexes = indexes;
+        this.width = Arrays.stream(indexes).max().orElse(ABSENT) + 1;
+    }
+
+    /**
+     * @throws ImportFormatException if a required column is not in the header or two header
+     *                               cells match the same column
+     */
+    public static AwardColumnPlan compile(List<String> header) {
+        int[] indexes = new int[AwardColumn.values().length];
+        Arrays.fill(indexes, ABSENT);
+
+        for (int i = 0; i < header.size(); i++) {
+            AwardColumn column = AwardColumn.byHeader(header.get(i));
+            if (column == null) {
+                continue;
+            }
+            if (indexes[column.ordinal()] != ABSENT) {
+                throw new ImportFormatException("Ambiguous header: column " + column.headerName()
+                        + " matches both '" + header.get(indexes[column.ordinal()]) + "' and '" + header.get(i) + "'");
+            }
+            indexes[column.ordinal()] = i;
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (AwardColumn column : AwardColumn.values()) {
+            if (column.isRequired() && indexes[column.ordinal()] == ABSENT) {
+                missing.add(column.headerName());
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new ImportFormatException("Missing required columns: " + String.join(", ", missing));
+        }
+        return new AwardColumnPlan(indexes);
+    }
+
+    public int employeeIdIndex() {
+        return indexes[AwardColumn.EMPLOYEE_ID.ordinal()];
+    }
+
+    /**
+     * @return index of the full name column, or -1 if the file has none
+     */
+    public int employeeFullNameIndex() {
+        return indexes[AwardColumn.EMPLOYEE_FULL_NAME.ordinal()];
+    }
+
+    public int awardCodeIndex() {
+        return indexes[AwardColumn.AWARD_CODE.ordinal()];
+    }
+
+    public int awardNameIndex() {
+        return indexes[AwardColumn.AWARD_NAME.ordinal()];
+    }
+
+    public int awardDateIndex() {
+        return indexes[AwardColumn.AWARD_DATE.ordinal()];
+    }
+
+    /**
+     * @return number of cells a row must have to contain every mapped column
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a whole number
+     */
+    public long parseEmployeeId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(invalidValue(AwardColumn.EMPLOYEE_ID), e);
+        }
+    }
+
+    /**
+     * Reads an employee id from a numeric cell; a fractional value such as {@code 12.7} is not
+     * truncated to an id.
+     *
+     * @throws IllegalArgumentException if the value is not a whole number in the range of long
+     */
+    public long parseEmployeeId(double value) {
+        long id = (long) value;
+        if (id != value) {
+            throw new IllegalArgumentException(invalidValue(AwardColumn.EMPLOYEE_ID));
+        }
+        return id;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a date in the format of this file
+     */
+    public int parseEpochDay(String value) {
+        if (dateFormat == null) {
+            dateFormat = AwardDateFormat.detect(value);
+            if (dateFormat == null) {
+                throw new IllegalArgumentException(invalidValue(AwardColumn.AWARD_DATE));
+            }
+        }
+        try {
+            return dateFormat.toEpochDay(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(invalidValue(AwardColumn.AWARD_DATE), e);
+        }
+    }
+
+    /**
+     * Adds a row given as text cells, as read from a CSV line. A row that cannot be read is added
+     * to the batch as invalid, with the reason as its message.
+     */
+    public void addRow(AwardRowBatch.Builder batch, int rowNumber, String[] cells) {
+        if (cells.length < width) {
+            batch.addInvalid(rowNumber, NOT_ENOUGH_COLUMNS);
+            return;
+        }
+
+        int fullNameIndex = employeeFullNameIndex();
+        try {
+            batch.add(rowNumber,
+                    parseEmployeeId(cells[employeeIdIndex()].trim()),
+                    fullNameIndex != ABSENT ? cells[fullNameIndex].trim() : "",
+                    cells[awardCodeIndex()].trim(),
+                    cells[awardNameIndex()].trim(),
+                    parseEpochDay(cells[awardDateIndex()].trim()));
+        } catch (IllegalArgumentException e) {
+            batch.addInvalid(rowNumber, e.getMessage());
+        }
+    }
+
+    private static String invalidValue(AwardColumn column) {
+        return "Invalid value in column " + column.headerName();
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.service.parser;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Accepted text layouts of the award date. All of them are fixed width, so a value is
+ * parsed by reading digits at known positions.
+ */
+enum AwardDateFormat {
+    ISO("yyyy-MM-dd", '-', 4, 7, 0, 5, 8),
+    DOTTED("dd.MM.yyyy", '.', 2, 5, 6, 3, 0),
+    SLASHED("dd/MM/yyyy", '/', 2, 5, 6, 3, 0),
+    ISO_SLASHED("yyyy/MM/dd", '/', 4, 7, 0, 5, 8);
+
+    private static final int LENGTH = 10;
+
+    private final String pattern;
+    private final char separator;
+    private final int firstSeparator;
+    private final int secondSeparator;
+    private final int yearAt;
+    private final int monthAt;
+    private final int dayAt;
+
+    AwardDateFormat(String pattern, char separator, int firstSeparator, int secondSeparator,
+                    int yearAt, int monthAt, int dayAt) {
+        this.pattern = pattern;
+        this.separator = separator;
+        this.firstSeparator = firstSeparator;
+        this.secondSeparator = secondSeparator;
+        this.yearAt = yearAt;
+        this.monthAt = monthAt;
+        this.dayAt = dayAt;
+    }
+
+    static AwardDateFormat detect(String value) {
+        for (AwardDateFormat format : values()) {
+            if (format.matches(value)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    boolean matches(String value) {
+        if (value.length() != LENGTH
+                || value.charAt(firstSeparator) != separator
+                || value.charAt(secondSeparator) != separator) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char c = value.charAt(i);
+            if (i != firstSeparator && i != secondSeparator && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value does not follow this format or is not a valid date
+     */
+    int toEpochDay(String value) {
+        if (!matches(value)) {
+            throw new IllegalArgumentException("Date '" + value + "' does not match format " + pattern);
+        }
+        try {
+            return (int) LocalDate.of(
+                    digits(value, yearAt, 4),
+                    digits(value, monthAt, 2),
+                    digits(value, dayAt, 2)).toEpochDay();
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date '" + value + "'", e);
+        }
+    }
+
+    private static int digits(String value, int from, int count) {
+        int result = 0;
+        for (int i = from; i < from + count; i++) {
+            result = result * 10 + (value.charAt(i) - '0');
+        }
+        return result;
+    }
+}
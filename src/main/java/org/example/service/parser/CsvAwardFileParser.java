@@ -1,42 +1,116 @@
 package org.example.service.parser;
 
+import org.example.model.batch.AwardRowBatch;
+import org.example.model.batch.ImportSource;
 import org.example.model.dto.AwardUploadRow;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDate;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Arrays;
+import java.util.List;
 
 @Component
 public class CsvAwardFileParser {
+    private static final char BOM = '\uFEFF';
 
     public Flux<AwardUploadRow> parse(InputStream inputStream) {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
-
-        AtomicInteger rowCounter = new AtomicInteger(0);
-
-        return Flux.fromStream(reader.lines())
-                .skip(1)
-                .map(line -> {
-                    int rowNum = rowCounter.incrementAndGet() + 1;
-                    String[] parts = line.split(",", -1);
-
-                    if (parts.length < 5) {
-                        throw new IllegalArgumentException("Not enough columns in a row " + rowNum);
-                    }
-
-                    AwardUploadRow row = new AwardUploadRow();
-                    row.setRowNumber(rowNum);
-                    row.setEmployeeId(Long.parseLong(parts[0].trim()));
-                    row.setEmployeeFullName(parts[1].trim());
-                    row.setAwardCode(parts[2].trim());
-                    row.setAwardName(parts[3].trim());
-                    row.setAwardDate(LocalDate.parse(parts[4].trim()));
-                    return row;
-                });
+        return parseBatches(inputStream)
+                .flatMapIterable(AwardRowBatch::rows);
+    }
+
+    public Flux<AwardRowBatch> parseBatches(InputStream inputStream) {
+        return parseSources(inputStream, ImportSource.DEFAULT_NAME)
+                .concatMap(ImportSource::batches);
+    }
+
+    /**
+     * Returns the file as a single import source. The header is read and checked when the source
+     * is emitted, so a file with missing columns fails before any source of the request is imported.
+     */
+    public Flux<ImportSource> parseSources(InputStream inputStream, String fileName) {
+        return Flux.defer(() -> {
+            BufferedReader reader = reader(inputStream);
+            AwardColumnPlan plan;
+            try {
+                plan = readHeader(reader);
+            } catch (ImportFormatException e) {
+                close(reader);
+                return Flux.error(new ImportFormatException(fileName + ": " + e.getMessage()));
+            } catch (UncheckedIOException e) {
+                close(reader);
+                return Flux.error(e);
+            }
+            if (plan == null) {
+                close(reader);
+                return Flux.empty();
+            }
+            return Flux.just(new ImportSource(fileName, readBatches(reader, plan)));
+        });
+    }
+
+    private static BufferedReader reader(InputStream inputStream) {
+        return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the column plan of the file, or {@code null} for an empty file
+     */
+    private static AwardColumnPlan readHeader(BufferedReader reader) {
+        try {
+            String header = reader.readLine();
+            return header != null ? AwardColumnPlan.compile(headerCells(header)) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Flux<AwardRowBatch> readBatches(BufferedReader reader, AwardColumnPlan plan) {
+        return Flux.using(
+                () -> reader,
+                r -> Flux.<AwardRowBatch, Integer>generate(
+                        () -> 1,
+                        (lineNumber, sink) -> {
+                            AwardRowBatch.Builder batch = AwardRowBatch.builder(AwardRowBatch.DEFAULT_SIZE);
+                            try {
+                                String line;
+                                while (!batch.isFull() && (line = r.readLine()) != null) {
+                                    lineNumber++;
+                                    if (!line.isBlank()) {
+                                        plan.addRow(batch, lineNumber, line.split(",", -1));
+                                    }
+                                }
+                            } catch (IOException e) {
+                                sink.error(new UncheckedIOException(e));
+                                return lineNumber;
+                            }
+
+                            if (batch.isEmpty()) {
+                                sink.complete();
+                            } else {
+                                sink.next(batch.build());
+                            }
+                            return lineNumber;
+                        }),
+                CsvAwardFileParser::close
+        );
+    }
+
+    private static List<String> headerCells(String header) {
+        if (!header.isEmpty() && header.charAt(0) == BOM) {
+            header = header.substring(1);
+        }
+        return Arrays.asList(header.split(",", -1));
+    }
+
+    private static void close(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException ignored) { }
     }
 }
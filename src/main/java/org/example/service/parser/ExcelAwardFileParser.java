@@ -1,55 +1,175 @@
 package org.example.service.parser;
 
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.example.model.dto.AwardUploadRow;
+import org.example.model.batch.AwardRowBatch;
+import org.example.model.batch.ImportSource;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.time.LocalDate;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 public class ExcelAwardFileParser {
 
-    public Flux<AwardUploadRow> parse(InputStream inputStream) {
-        return Flux.using(
-                () -> new XSSFWorkbook(inputStream),
-                workbook -> {
-                    Sheet sheet = workbook.getSheetAt(0);
-                    List<AwardUploadRow> rows = new ArrayList<>();
+    /**
+     * Parses every non-empty sheet of the workbook into its own import source. The header of each
+     * sheet is checked when the sources are emitted; its rows are read batch by batch only when
+     * the source is imported, so a request does not hold the parsed rows of all its sheets.
+     * <p>
+     * A sheet without the award columns, e.g. a summary or notes sheet, does not stop the other
+     * sheets: its source fails with an {@link ImportFormatException} that is reported for that
+     * sheet alone. Only a workbook in which no sheet has the award columns fails as a whole.
+     * <p>
+     * The workbook is closed when the last of its sources terminates. Sources may be imported in
+     * parallel, so reading a batch holds the workbook lock.
+     */
+    public Flux<ImportSource> parseSources(InputStream inputStream, String fileName) {
+        return Flux.defer(() -> {
+            XSSFWorkbook workbook;
+            try {
+                workbook = new XSSFWorkbook(inputStream);
+            } catch (IOException e) {
+                return Flux.error(new UncheckedIOException(e));
+            }
 
-                    int firstRow = 1;
-                    for (int i = firstRow; i <= sheet.getLastRowNum(); i++) {
-                        Row row = sheet.getRow(i);
-                        if (row == null) {
-                            continue;
-                        }
+            List<ImportSource> sources = new ArrayList<>();
+            AtomicInteger openSources = new AtomicInteger();
+            ImportFormatException firstFailure = null;
+            for (Sheet sheet : workbook) {
+                if (sheet.getPhysicalNumberOfRows() == 0) {
+                    continue;
+                }
+                String name = fileName + "#" + sheet.getSheetName();
+                try {
+                    sources.add(new ImportSource(name, readSheet(workbook, new SheetReader(sheet), openSources)));
+                    openSources.incrementAndGet();
+                } catch (ImportFormatException e) {
+                    sources.add(new ImportSource(name, Flux.error(e)));
+                    if (firstFailure == null) {
+                        firstFailure = new ImportFormatException(name + ": " + e.getMessage());
+                    }
+                }
+            }
+            if (openSources.get() == 0) {
+                close(workbook);
+                return firstFailure != null ? Flux.error(firstFailure) : Flux.empty();
+            }
+            return Flux.fromIterable(sources);
+        });
+    }
 
-                        AwardUploadRow uploadRow = new AwardUploadRow();
-                        uploadRow.setRowNumber(i + 1);
+    private static Flux<AwardRowBatch> readSheet(XSSFWorkbook workbook, SheetReader reader, AtomicInteger openSources) {
+        return Flux.<AwardRowBatch>generate(sink -> {
+                    synchronized (workbook) {
+                        reader.next(sink);
+                    }
+                })
+                .doFinally(signal -> {
+                    if (openSources.decrementAndGet() == 0) {
+                        close(workbook);
+                    }
+                });
+    }
 
-                        uploadRow.setEmployeeId((long) row.getCell(0).getNumericCellValue());
-                        uploadRow.setEmployeeFullName(row.getCell(1).getStringCellValue());
-                        uploadRow.setAwardCode(row.getCell(2).getStringCellValue());
-                        uploadRow.setAwardName(row.getCell(3).getStringCellValue());
+    private static void close(XSSFWorkbook workbook) {
+        try {
+            workbook.close();
+        } catch (IOException ignored) { }
+    }
 
-                        String dateStr = row.getCell(4).getStringCellValue();
-                        uploadRow.setAwardDate(LocalDate.parse(dateStr));
+    /**
+     * Reads the rows of one sheet batch by batch, from the column plan of its header row.
+     */
+    private static final class SheetReader {
+        private final Sheet sheet;
+        private final AwardColumnPlan plan;
+        private int nextRow;
 
-                        rows.add(uploadRow);
-                    }
-                    return Flux.fromIterable(rows);
-                },
-                workbook -> {
-                    try {
-                        workbook.close();
-                    } catch (IOException ignored) { }
+        /**
+         * @throws ImportFormatException if the header row of the sheet lacks the award columns
+         */
+        SheetReader(Sheet sheet) {
+            this.sheet = sheet;
+            Row headerRow = sheet.getRow(sheet.getFirstRowNum());
+            this.plan = AwardColumnPlan.compile(headerCells(headerRow));
+            this.nextRow = headerRow.getRowNum() + 1;
+        }
+
+        void next(SynchronousSink<AwardRowBatch> sink) {
+            int fullNameIndex = plan.employeeFullNameIndex();
+            AwardRowBatch.Builder batch = AwardRowBatch.builder(AwardRowBatch.DEFAULT_SIZE);
+            while (!batch.isFull() && nextRow <= sheet.getLastRowNum()) {
+                int i = nextRow++;
+                Row row = sheet.getRow(i);
+                if (row == null) {
+                    continue;
                 }
-        );
+
+                try {
+                    batch.add(i + 1,
+                            employeeId(row.getCell(plan.employeeIdIndex()), plan),
+                            fullNameIndex >= 0 ? text(row.getCell(fullNameIndex)) : "",
+                            text(row.getCell(plan.awardCodeIndex())),
+                            text(row.getCell(plan.awardNameIndex())),
+                            epochDay(row.getCell(plan.awardDateIndex()), plan));
+                } catch (IllegalArgumentException e) {
+                    batch.addInvalid(i + 1, e.getMessage());
+                }
+            }
+
+            if (batch.isEmpty()) {
+                sink.complete();
+            } else {
+                sink.next(batch.build());
+            }
+        }
+    }
+
+    private static List<String> headerCells(Row headerRow) {
+        List<String> header = new ArrayList<>();
+        for (int i = 0; i < headerRow.getLastCellNum(); i++) {
+            header.add(text(headerRow.getCell(i)));
+        }
+        return header;
+    }
+
+    private static long employeeId(Cell cell, AwardColumnPlan plan) {
+        if (cell != null && cell.getCellType() == CellType.NUMERIC) {
+            return plan.parseEmployeeId(cell.getNumericCellValue());
+        }
+        return plan.parseEmployeeId(text(cell));
+    }
+
+    private static int epochDay(Cell cell, AwardColumnPlan plan) {
+        if (cell != null && cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
+            return (int) cell.getLocalDateTimeCellValue().toLocalDate().toEpochDay();
+        }
+        return plan.parseEpochDay(text(cell));
+    }
+
+    private static String text(Cell cell) {
+        if (cell == null) {
+            return "";
+        }
+        return switch (cell.getCellType()) {
+            case STRING -> cell.getStringCellValue().trim();
+            case NUMERIC -> {
+                double value = cell.getNumericCellValue();
+                yield value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+            }
+            case BOOLEAN -> Boolean.toString(cell.getBooleanCellValue());
+            default -> "";
+        };
     }
 }
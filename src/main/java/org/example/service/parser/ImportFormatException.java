@@ -0,0 +1,11 @@
+package org.example.service.parser;
+
+/**
+ * The file as a whole cannot be imported, e.g. because required columns are missing.
+ */
+public class ImportFormatException extends RuntimeException {
+
+    public ImportFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.service.report;
+
+import org.example.model.AwardImportError;
+import org.example.model.ImportErrorType;
+import org.example.model.dto.ImportErrorGroupDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Aggregates row errors of one import source by type and cause instead of keeping an object per row.
+ * The message of a group is built only once, for the first row that falls into it.
+ */
+public class ImportErrorCollector {
+    private final String source;
+    private final Map<GroupKey, Group> groups = new LinkedHashMap<>();
+
+    public ImportErrorCollector(String source) {
+        this.source = source;
+    }
+
+    public synchronized void add(ImportErrorType type, String cause, int rowNumber, Supplier<String> message) {
+        groups.computeIfAbsent(new GroupKey(type, cause), key -> new Group(message.get()))
+                .rows.add(rowNumber);
+    }
+
+    public synchronized List<ImportErrorGroupDto> toDtos() {
+        List<ImportErrorGroupDto> dtos = new ArrayList<>(groups.size());
+        groups.forEach((key, group) -> dtos.add(ImportErrorGroupDto.builder()
+                .source(source)
+                .type(key.type())
+                .message(group.message)
+                .rowCount(group.rows.rowCount())
+                .rows(group.rows.encode())
+                .build()));
+        return dtos;
+    }
+
+    public synchronized List<AwardImportError> toRecords(Long importId) {
+        List<AwardImportError> records = new ArrayList<>(groups.size());
+        groups.forEach((key, group) -> records.add(new AwardImportError(
+                null,
+                importId,
+                source,
+                key.type(),
+                key.cause(),
+                group.message,
+                group.rows.rowCount(),
+                group.rows.encode())));
+        return records;
+    }
+
+    private record GroupKey(ImportErrorType type, String cause) {
+    }
+
+    private static final class Group {
+        private final String message;
+        private final RowRanges rows = new RowRanges();
+
+        private Group(String message) {
+            this.message = message;
+        }
+    }
+}
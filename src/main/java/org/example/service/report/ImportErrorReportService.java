@@ -0,0 +1,51 @@
+package org.example.service.report;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.dto.ImportErrorRowDto;
+import org.example.repository.AwardImportErrorRepository;
+import org.example.repository.AwardImportRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Builds the per-row error report of an import as CSV.
+ * <p>
+ * The stored row ranges are expanded and sorted by the database, so the report is written
+ * line by line without holding the error groups of the import in memory.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportErrorReportService {
+    static final String HEADER = "source,row_number,error_type,message\n";
+
+    private final AwardImportRepository importRepository;
+    private final AwardImportErrorRepository errorRepository;
+
+    /**
+     * @return the report lines, or an empty Mono when there is no import with this id
+     */
+    public Mono<Flux<String>> findErrorCsv(Long importId) {
+        return importRepository.existsById(importId)
+                .filter(Boolean::booleanValue)
+                .map(exists -> errorCsv(importId));
+    }
+
+    private Flux<String> errorCsv(Long importId) {
+        return errorRepository.findRowsByImportId(importId)
+                .map(ImportErrorReportService::toCsv)
+                .startWith(HEADER);
+    }
+
+    private static String toCsv(ImportErrorRowDto row) {
+        return escape(row.getSource()) + "," + row.getRowNumber() + "," + row.getErrorType().name()
+                + "," + escape(row.getMessage()) + "\n";
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
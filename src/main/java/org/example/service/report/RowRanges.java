@@ -0,0 +1,84 @@
+package org.example.service.report;
+
+import java.util.Arrays;
+
+/**
+ * Compact set of row numbers stored as closed ranges, encoded as {@code 3-9981,10002}.
+ * <p>
+ * Rows usually arrive in ascending order, so adding a row is O(1) and consecutive rows
+ * cost nothing beyond the range they extend.
+ */
+public class RowRanges {
+    private int[] bounds = new int[8];
+    private int size;
+    private int rowCount;
+    private boolean sorted = true;
+
+    public void add(int row) {
+        rowCount++;
+        if (size > 0) {
+            int last = bounds[size - 1];
+            if (row == last + 1) {
+                bounds[size - 1] = row;
+                return;
+            }
+            if (row <= last) {
+                sorted = false;
+            }
+        }
+        if (size + 2 > bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        bounds[size++] = row;
+        bounds[size++] = row;
+    }
+
+    public int rowCount() {
+        normalize();
+        return rowCount;
+    }
+
+    public String encode() {
+        normalize();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(bounds[i]);
+            if (bounds[i + 1] != bounds[i]) {
+                sb.append('-').append(bounds[i + 1]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private void normalize() {
+        if (sorted) {
+            return;
+        }
+        long[] ranges = new long[size / 2];
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = ((long) bounds[2 * i] << 32) | (bounds[2 * i + 1] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(ranges);
+
+        int merged = 0;
+        for (long range : ranges) {
+            int start = (int) (range >>> 32);
+            int end = (int) range;
+            if (merged > 0 && start <= bounds[merged - 1] + 1) {
+                bounds[merged - 1] = Math.max(bounds[merged - 1], end);
+            } else {
+                bounds[merged++] = start;
+                bounds[merged++] = end;
+            }
+        }
+        size = merged;
+        rowCount = 0;
+        for (int i = 0; i < size; i += 2) {
+            rowCount += bounds[i + 1] - bounds[i] + 1;
+        }
+        sorted = true;
+    }
+}
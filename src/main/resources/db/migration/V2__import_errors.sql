@@ -0,0 +1,19 @@
+CREATE TABLE award_import (
+    id              BIGSERIAL PRIMARY KEY,
+    total_rows      INT NOT NULL,
+    imported_rows   INT NOT NULL,
+    skipped_rows    INT NOT NULL,
+    created_at      TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE award_import_error (
+    id              BIGSERIAL PRIMARY KEY,
+    import_id       BIGINT NOT NULL REFERENCES award_import (id) ON DELETE CASCADE,
+    error_type      VARCHAR(50) NOT NULL,
+    cause           VARCHAR(255) NOT NULL,
+    message         TEXT NOT NULL,
+    row_count       INT NOT NULL,
+    row_ranges      TEXT NOT NULL
+);
+
+CREATE INDEX idx_award_import_error_import ON award_import_error (import_id);
@@ -0,0 +1,23 @@
+CREATE TABLE award_stats_monthly (
+    award_code      VARCHAR(100) NOT NULL,
+    award_month     DATE NOT NULL,
+    award_count     BIGINT NOT NULL,
+    PRIMARY KEY (award_code, award_month)
+);
+
+CREATE TABLE award_stats_employee (
+    employee_id     BIGINT NOT NULL REFERENCES employee (id),
+    award_code      VARCHAR(100) NOT NULL,
+    award_count     BIGINT NOT NULL,
+    PRIMARY KEY (employee_id, award_code)
+);
+
+INSERT INTO award_stats_monthly (award_code, award_month, award_count)
+SELECT award_code, date_trunc('month', award_date)::date, COUNT(*)
+FROM award
+GROUP BY award_code, date_trunc('month', award_date)::date;
+
+INSERT INTO award_stats_employee (employee_id, award_code, award_count)
+SELECT employee_id, award_code, COUNT(*)
+FROM award
+GROUP BY employee_id, award_code;
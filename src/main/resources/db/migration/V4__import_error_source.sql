@@ -0,0 +1,2 @@
+ALTER TABLE award_import_error
+    ADD COLUMN source VARCHAR(255) NOT NULL DEFAULT '';
@@ -0,0 +1,2 @@
+ALTER TABLE award_import_error
+    ALTER COLUMN cause TYPE TEXT;
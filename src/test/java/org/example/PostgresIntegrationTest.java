@@ -0,0 +1,62 @@
+package org.example;
+
+import org.example.model.batch.AwardRowBatch;
+import org.example.model.dto.AwardUploadRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+
+/**
+ * Base class for tests that run SQL against a real Postgres. One container is started for the
+ * whole test run and migrated by Flyway when the application context starts. Every test starts
+ * without awards and statistics, with employees 1 and 2.
+ */
+@SpringBootTest
+public abstract class PostgresIntegrationTest {
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @Autowired
+    protected DatabaseClient databaseClient;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + POSTGRES.getHost() + ":"
+                + POSTGRES.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + POSTGRES.getDatabaseName());
+        registry.add("spring.r2dbc.username", POSTGRES::getUsername);
+        registry.add("spring.r2dbc.password", POSTGRES::getPassword);
+        registry.add("spring.flyway.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.flyway.user", POSTGRES::getUsername);
+        registry.add("spring.flyway.password", POSTGRES::getPassword);
+    }
+
+    @BeforeEach
+    void resetDatabase() {
+        databaseClient.sql("DELETE FROM award_stats_employee").then()
+                .then(databaseClient.sql("DELETE FROM award_stats_monthly").then())
+                .then(databaseClient.sql("DELETE FROM award").then())
+                .then(databaseClient.sql("DELETE FROM employee").then())
+                .then(databaseClient.sql("INSERT INTO employee (id, full_name) VALUES (1, 'Иванов И.И.'), (2, 'Петров П.П.')").then())
+                .block();
+    }
+
+    protected static AwardUploadRow row(long employeeId, String awardCode, String awardDate, int rowNumber) {
+        return new AwardUploadRow(employeeId, "", awardCode, "Награда", LocalDate.parse(awardDate), rowNumber);
+    }
+
+    protected static BitSet all(AwardRowBatch batch) {
+        BitSet rows = new BitSet();
+        rows.set(0, batch.size());
+        return rows;
+    }
+}
@@ -1,8 +1,13 @@
 package org.example.controller;
 
+import org.example.config.AwardImportConfig;
+import org.example.model.batch.AwardRowBatch;
+import org.example.model.batch.ImportSource;
 import org.example.model.dto.ImportErrorDto;
 import org.example.model.dto.ImportResultDto;
 import org.example.service.AwardImportService;
+import org.example.service.admission.ImportAdmissionService;
+import org.example.service.report.ImportErrorReportService;
 import org.example.service.parser.CsvAwardFileParser;
 import org.example.service.parser.ExcelAwardFileParser;
 import org.junit.jupiter.api.Test;
@@ -10,25 +15,32 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webflux.test.autoconfigure.WebFluxTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(controllers = AwardImportController.class)
-@Import({CsvAwardFileParser.class, ExcelAwardFileParser.class})
+@Import({CsvAwardFileParser.class, ExcelAwardFileParser.class, ImportAdmissionService.class, AwardImportConfig.class})
 class AwardImportControllerTest {
 
     @Autowired
@@ -37,6 +49,12 @@ class AwardImportControllerTest {
     @MockitoBean
     private AwardImportService awardImportService;
 
+    @MockitoBean
+    private ImportErrorReportService errorReportService;
+
+    @Autowired
+    private ImportAdmissionService admissionService;
+
     @Test
     void shouldReturnBadRequestForUnsupportedFileExtension() {
         ImportResultDto expectedResult = new ImportResultDto(0, 0, 0,
@@ -61,7 +79,7 @@ class AwardImportControllerTest {
         ImportResultDto mockResult = new ImportResultDto(
                 2, 2, 0, Collections.emptyList());
 
-        when(awardImportService.importAwards(any()))
+        when(awardImportService.importSources(any()))
                 .thenReturn(Mono.just(mockResult));
 
         ClassPathResource csvResource = new ClassPathResource("test-data/awards.csv");
@@ -95,7 +113,7 @@ class AwardImportControllerTest {
         ImportResultDto mockResult = new ImportResultDto(
                 3, 3, 0, Collections.emptyList());
 
-        when(awardImportService.importAwards(any()))
+        when(awardImportService.importSources(any()))
                 .thenReturn(Mono.just(mockResult));
 
         ClassPathResource xlsxResource = new ClassPathResource("test-data/awards.xlsx");
@@ -115,7 +133,7 @@ class AwardImportControllerTest {
 
     @Test
     void shouldPropagateServiceErrorAsServerError() {
-        when(awardImportService.importAwards(any()))
+        when(awardImportService.importSources(any()))
                 .thenReturn(Mono.error(new RuntimeException("Service fail")));
 
         ClassPathResource csvResource = new ClassPathResource("test-data/awards.csv");
@@ -135,7 +153,7 @@ class AwardImportControllerTest {
 
         ArgumentCaptor<Flux<?>> captor = ArgumentCaptor.forClass(Flux.class);
 
-        when(awardImportService.importAwards(any()))
+        when(awardImportService.importSources(any()))
                 .thenReturn(Mono.just(mockResult));
 
         ClassPathResource csvResource = new ClassPathResource("test-data/awards_single.csv");
@@ -147,10 +165,14 @@ class AwardImportControllerTest {
                 .exchange()
                 .expectStatus().isOk();
 
-        verify(awardImportService).importAwards((Flux) captor.capture());
+        verify(awardImportService).importSources((Flux) captor.capture());
         Flux<?> flux = captor.getValue();
-        long count = flux.count().block();
-        assertThat(count).isEqualTo(1L);
+        int count = flux.cast(ImportSource.class)
+                .flatMap(ImportSource::batches)
+                .map(AwardRowBatch::size)
+                .reduce(0, Integer::sum)
+                .block();
+        assertThat(count).isEqualTo(1);
     }
 
     @Test
@@ -161,7 +183,7 @@ class AwardImportControllerTest {
         ImportResultDto mockResult = new ImportResultDto(
                 3, 1, 2, List.of(error1, error2));
 
-        when(awardImportService.importAwards(any()))
+        when(awardImportService.importSources(any()))
                 .thenReturn(Mono.just(mockResult));
 
         ClassPathResource csvResource = new ClassPathResource("test-data/awards_with_errors.csv");
@@ -182,4 +204,119 @@ class AwardImportControllerTest {
                             .contains("Employee not found", "Error save reward");
                 });
     }
+
+    @Test
+    void shouldStreamErrorReportAsCsv() {
+        when(errorReportService.findErrorCsv(7L))
+                .thenReturn(Mono.just(Flux.just(
+                        "row_number,error_type,message\n",
+                        "3,EMPLOYEE_NOT_FOUND,Employee with id 42 not found\n")));
+
+        webTestClient.get()
+                .uri("/api/v1/awards/import/7/errors")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("text/csv")
+                .expectHeader().valueMatches("Content-Disposition", ".*import-7-errors\\.csv.*")
+                .expectBody(String.class)
+                .value(body -> assertThat(body)
+                        .isEqualTo("row_number,error_type,message\n3,EMPLOYEE_NOT_FOUND,Employee with id 42 not found\n"));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownImport() {
+        when(errorReportService.findErrorCsv(8L))
+                .thenReturn(Mono.empty());
+
+        webTestClient.get()
+                .uri("/api/v1/awards/import/8/errors")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldPassEveryFilePartAsSeparateSource() {
+        ImportResultDto mockResult = new ImportResultDto(
+                2, 2, 0, Collections.emptyList());
+
+        ArgumentCaptor<Flux<?>> captor = ArgumentCaptor.forClass(Flux.class);
+
+        when(awardImportService.importSources(any()))
+                .thenReturn(Mono.just(mockResult));
+
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
+        builder.part("file", csv("hr.csv", "employee_id,award_code,award_name,award_date\n1,A1,Награда,2024-01-10\n"));
+        builder.part("file", csv("finance.csv", "award_date,employee_id,award_code,award_name\n2024-01-11,2,A2,Награда\n"));
+
+        webTestClient.post()
+                .uri("/api/v1/awards/import")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(builder.build()))
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(awardImportService).importSources((Flux) captor.capture());
+        List<String> names = captor.getValue()
+                .cast(ImportSource.class)
+                .map(ImportSource::name)
+                .collectList()
+                .block();
+        assertThat(names).containsExactly("hr.csv", "finance.csv");
+    }
+
+    @Test
+    void shouldRejectRequestWhenAnyFileIsUnsupported() {
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
+        builder.part("file", csv("hr.csv", "employee_id,award_code,award_name,award_date\n"));
+        builder.part("file", csv("notes.txt", "hello"));
+
+        webTestClient.post()
+                .uri("/api/v1/awards/import")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(builder.build()))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ImportResultDto.class)
+                .value(result -> assertThat(result.getErrors())
+                        .extracting(ImportErrorDto::getMessage)
+                        .containsExactly("Unsupported file format: notes.txt"));
+    }
+
+    @Test
+    void shouldRejectWithRetryAfterWhenClientQueueIsFull() {
+        List<Disposable> waiting = new ArrayList<>();
+        try {
+            // award.import.admission in application.yml: 4 running imports, 4 queued per client
+            for (int i = 0; i < 8; i++) {
+                waiting.add(admissionService.admit("hr", 1, Mono::never).subscribe());
+            }
+
+            webTestClient.post()
+                    .uri("/api/v1/awards/import")
+                    .header("X-Client-Id", "hr")
+                    .contentType(MediaType.MULTIPART_FORM_DATA)
+                    .body(BodyInserters.fromMultipartData("file",
+                            csv("hr.csv", "employee_id,award_code,award_name,award_date\n")))
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                    .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "30")
+                    .expectBody(ImportResultDto.class)
+                    .value(result -> assertThat(result.getErrors())
+                            .extracting(ImportErrorDto::getMessage)
+                            .containsExactly("Too many imports in progress, retry later"));
+
+            verifyNoInteractions(awardImportService);
+        } finally {
+            waiting.forEach(Disposable::dispose);
+        }
+    }
+
+    private static ByteArrayResource csv(String filename, String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
 }
@@ -0,0 +1,59 @@
+package org.example.controller;
+
+import org.example.model.dto.AwardMonthlyStatDto;
+import org.example.model.dto.EmployeeAwardStatDto;
+import org.example.service.AwardStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webflux.test.autoconfigure.WebFluxTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(controllers = AwardStatsController.class)
+class AwardStatsControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private AwardStatsService awardStatsService;
+
+    @Test
+    void shouldReturnMonthlyStatsForRange() {
+        when(awardStatsService.monthlyStats("A1", YearMonth.of(2024, 1), YearMonth.of(2024, 3)))
+                .thenReturn(Flux.just(
+                        new AwardMonthlyStatDto("A1", YearMonth.of(2024, 1), 5),
+                        new AwardMonthlyStatDto("A1", YearMonth.of(2024, 3), 2)));
+
+        webTestClient.get()
+                .uri("/api/v1/awards/stats/monthly?awardCode=A1&from=2024-01&to=2024-03")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(AwardMonthlyStatDto.class)
+                .value(stats -> assertThat(stats)
+                        .extracting(AwardMonthlyStatDto::getCount)
+                        .containsExactly(5L, 2L));
+    }
+
+    @Test
+    void shouldReturnStatsOfAllEmployeesWithoutFilter() {
+        when(awardStatsService.employeeStats(isNull(), isNull()))
+                .thenReturn(Flux.just(
+                        new EmployeeAwardStatDto(1L, "A1", 3),
+                        new EmployeeAwardStatDto(2L, "A2", 1)));
+
+        webTestClient.get()
+                .uri("/api/v1/awards/stats/employees")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(EmployeeAwardStatDto.class)
+                .hasSize(2);
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.repository;
+
+import org.example.PostgresIntegrationTest;
+import org.example.model.Award;
+import org.example.model.batch.AwardRowBatch;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AwardBatchRepositoryImplTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AwardRepository awardRepository;
+
+    @Test
+    void shouldReturnIndexesOfInsertedRowsOnly() {
+        databaseClient.sql("""
+                        INSERT INTO award (employee_id, award_code, award_name, award_date)
+                        VALUES (2, 'A1', 'Награда', DATE '2024-01-10')
+                        """)
+                .then()
+                .block();
+
+        AwardRowBatch batch = AwardRowBatch.of(List.of(
+                row(1L, "A1", "2024-01-10", 2),
+                row(1L, "A1", "2024-01-10", 3),
+                row(2L, "A1", "2024-01-10", 4),
+                row(2L, "A2", "2024-01-10", 5),
+                row(1L, "A1", "2024-01-11", 6)));
+
+        BitSet inserted = awardRepository.insertBatch(batch, all(batch)).block();
+
+        assertThat(inserted).isEqualTo(bits(0, 3, 4));
+        assertThat(awardRepository.count().block()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldInsertOnlySelectedRows() {
+        AwardRowBatch batch = AwardRowBatch.of(List.of(
+                row(1L, "A1", "2024-02-01", 2),
+                row(1L, "A2", "2024-02-01", 3),
+                row(2L, "A3", "2024-02-01", 4)));
+
+        BitSet inserted = awardRepository.insertBatch(batch, bits(1, 2)).block();
+
+        assertThat(inserted).isEqualTo(bits(1, 2));
+        assertThat(awardRepository.findAll()
+                .map(Award::getAwardCode)
+                .collectList()
+                .block())
+                .containsExactlyInAnyOrder("A2", "A3");
+    }
+
+    @Test
+    void shouldReportEveryRowAsDuplicateOnRepeatedImport() {
+        AwardRowBatch batch = AwardRowBatch.of(List.of(
+                row(1L, "A1", "2024-03-01", 2),
+                row(2L, "A1", "2024-03-01", 3)));
+
+        BitSet first = awardRepository.insertBatch(batch, all(batch)).block();
+        BitSet second = awardRepository.insertBatch(batch, all(batch)).block();
+
+        assertThat(first).isEqualTo(bits(0, 1));
+        assertThat(second).isEmpty();
+    }
+
+    private static BitSet bits(int... indexes) {
+        BitSet bits = new BitSet();
+        for (int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
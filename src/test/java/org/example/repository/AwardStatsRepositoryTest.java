@@ -0,0 +1,125 @@
+package org.example.repository;
+
+import org.example.PostgresIntegrationTest;
+import org.example.model.batch.AwardRowBatch;
+import org.example.model.dto.AwardMonthlyStatDto;
+import org.example.model.dto.EmployeeAwardStatDto;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AwardStatsRepositoryTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AwardStatsRepository statsRepository;
+
+    @Autowired
+    private AwardRepository awardRepository;
+
+    @Test
+    void shouldCountAwardsInsertedByBatches() {
+        AwardRowBatch first = AwardRowBatch.of(List.of(
+                row(1L, "A1", "2024-01-10", 2),
+                row(2L, "A1", "2024-01-20", 3),
+                row(1L, "B1", "2024-01-05", 4)));
+        AwardRowBatch second = AwardRowBatch.of(List.of(
+                row(1L, "A1", "2024-01-10", 2),
+                row(1L, "A1", "2024-01-11", 3),
+                row(1L, "A1", "2024-02-01", 4),
+                row(1L, "A1", "2024-02-01", 5)));
+
+        awardRepository.insertBatch(first, all(first)).block();
+        awardRepository.insertBatch(second, all(second)).block();
+
+        assertThat(statsRepository.findMonthly(null, null, null).collectList().block())
+                .containsExactly(
+                        new AwardMonthlyStatDto("A1", YearMonth.of(2024, 1), 3),
+                        new AwardMonthlyStatDto("B1", YearMonth.of(2024, 1), 1),
+                        new AwardMonthlyStatDto("A1", YearMonth.of(2024, 2), 1));
+        assertThat(statsRepository.findPerEmployee(null, null).collectList().block())
+                .containsExactly(
+                        new EmployeeAwardStatDto(1L, "A1", 3),
+                        new EmployeeAwardStatDto(1L, "B1", 1),
+                        new EmployeeAwardStatDto(2L, "A1", 1));
+    }
+
+    @Test
+    void shouldFilterSummaries() {
+        AwardRowBatch batch = AwardRowBatch.of(List.of(
+                row(1L, "A1", "2024-01-10", 2),
+                row(1L, "A1", "2024-03-10", 3),
+                row(2L, "B1", "2024-03-11", 4)));
+        awardRepository.insertBatch(batch, all(batch)).block();
+
+        assertThat(statsRepository.findMonthly("A1", LocalDate.parse("2024-02-01"), null).collectList().block())
+                .containsExactly(new AwardMonthlyStatDto("A1", YearMonth.of(2024, 3), 1));
+        assertThat(statsRepository.findPerEmployee(2L, null).collectList().block())
+                .containsExactly(new EmployeeAwardStatDto(2L, "B1", 1));
+    }
+
+    @Test
+    void shouldBackfillSummariesFromExistingAwards() throws SQLException {
+        Flyway beforeStats = Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .schemas("backfill")
+                .cleanDisabled(false)
+                .target("2")
+                .load();
+        beforeStats.clean();
+        beforeStats.migrate();
+
+        try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO employee (id, full_name) VALUES (1, 'Иванов И.И.'), (2, 'Петров П.П.');
+                    INSERT INTO award (employee_id, award_code, award_name, award_date) VALUES
+                        (1, 'A1', 'Награда', DATE '2024-01-10'),
+                        (1, 'A1', 'Награда', DATE '2024-01-31'),
+                        (2, 'A1', 'Награда', DATE '2024-02-01'),
+                        (2, 'B1', 'Награда', DATE '2024-01-15');
+                    """);
+        }
+
+        Flyway.configure()
+                .configuration(beforeStats.getConfiguration())
+                .target("3")
+                .load()
+                .migrate();
+
+        assertThat(query("SELECT award_code, award_month, award_count FROM award_stats_monthly ORDER BY 1, 2"))
+                .containsExactly("A1 2024-01-01 2", "A1 2024-02-01 1", "B1 2024-01-01 1");
+        assertThat(query("SELECT employee_id, award_code, award_count FROM award_stats_employee ORDER BY 1, 2"))
+                .containsExactly("1 A1 2", "2 A1 1", "2 B1 1");
+    }
+
+    private static Connection connection() throws SQLException {
+        Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        connection.setSchema("backfill");
+        return connection;
+    }
+
+    private static List<String> query(String sql) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection connection = connection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                rows.add(resultSet.getString(1) + " " + resultSet.getString(2) + " " + resultSet.getString(3));
+            }
+        }
+        return rows;
+    }
+}
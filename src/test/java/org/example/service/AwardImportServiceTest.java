@@ -1,25 +1,41 @@
 package org.example.service;
 
-import org.example.model.Award;
+import org.example.config.AwardImportProperties;
+import org.example.model.AwardImport;
 import org.example.model.Employee;
+import org.example.model.ImportErrorType;
+import org.example.model.batch.AwardRowBatch;
+import org.example.model.batch.ImportSource;
 import org.example.model.dto.AwardUploadRow;
-import org.example.model.dto.ImportErrorDto;
+import org.example.model.dto.ImportErrorGroupDto;
 import org.example.model.dto.ImportResultDto;
+import org.example.model.dto.ImportSourceResultDto;
+import org.example.repository.AwardImportErrorRepository;
+import org.example.repository.AwardImportRepository;
 import org.example.repository.AwardRepository;
 import org.example.repository.EmployeeRepository;
+import org.example.service.parser.CsvAwardFileParser;
+import org.example.service.parser.ImportFormatException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,9 +47,30 @@ class AwardImportServiceTest {
     @Mock
     AwardRepository awardRepository;
 
-    @InjectMocks
+    @Mock
+    AwardImportRepository importRepository;
+
+    @Mock
+    AwardImportErrorRepository importErrorRepository;
+
     AwardImportService awardImportService;
 
+    @BeforeEach
+    void setUp() {
+        awardImportService = new AwardImportService(employeeRepository, awardRepository, importRepository,
+                importErrorRepository, new AwardImportProperties(2, null));
+
+        when(importRepository.save(any(AwardImport.class)))
+                .thenAnswer(invocation -> {
+                    AwardImport i = invocation.getArgument(0);
+                    i.setId(42L);
+                    return Mono.just(i);
+                });
+
+        when(importErrorRepository.saveAll(anyIterable()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(0)));
+    }
+
     @Test
     void shouldImportOnlyExistingEmployees() {
         AwardUploadRow row1 = new AwardUploadRow(1L, "Иванов И.И.", "A1", "Лучший сотрудник", LocalDate.parse("2024-01-10"), 2);
@@ -44,12 +81,8 @@ class AwardImportServiceTest {
         when(employeeRepository.findAllById(Collections.singleton(any())))
                 .thenReturn(Flux.just(new Employee(1L, "Иванов И.И.")));
 
-        when(awardRepository.save(any(Award.class)))
-                .thenAnswer(invocation -> {
-                    Award a = invocation.getArgument(0);
-                    a.setId(100L);
-                    return Mono.just(a);
-                });
+        when(awardRepository.insertBatch(any(AwardRowBatch.class), any(BitSet.class)))
+                .thenAnswer(AwardImportServiceTest::insertAll);
 
         ImportResultDto result = awardImportService.importAwards(rows).block();
 
@@ -57,34 +90,32 @@ class AwardImportServiceTest {
         assertThat(result.getTotalRows()).isEqualTo(2);
         assertThat(result.getImportedRows()).isEqualTo(1);
         assertThat(result.getSkippedRows()).isEqualTo(1);
-        assertThat(result.getErrors())
+        assertThat(result.getImportId()).isEqualTo(42L);
+        assertThat(result.getErrorGroups())
                 .hasSize(1)
                 .first()
                 .satisfies(error -> {
-                    assertThat(error.getRowNumber()).isEqualTo(3);
+                    assertThat(error.getType()).isEqualTo(ImportErrorType.EMPLOYEE_NOT_FOUND);
+                    assertThat(error.getRows()).isEqualTo("3");
                     assertThat(error.getMessage()).contains("not found");
                 });
 
-        verify(awardRepository, times(1)).save(any(Award.class));
+        verify(awardRepository).insertBatch(any(AwardRowBatch.class), eq(BitSet.valueOf(new long[]{1L})));
     }
 
     @Test
     void shouldReturnZeroCountsForEmptyInput() {
         Flux<AwardUploadRow> emptyRows = Flux.empty();
 
-        when(employeeRepository.findAllById((Iterable<Long>) any()))
-                .thenReturn(Flux.empty());
-
         ImportResultDto result = awardImportService.importAwards(emptyRows).block();
 
         assertThat(result).isNotNull();
         assertThat(result.getTotalRows()).isEqualTo(0);
         assertThat(result.getImportedRows()).isEqualTo(0);
         assertThat(result.getSkippedRows()).isEqualTo(0);
-        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getErrorGroups()).isEmpty();
 
-        verify(employeeRepository, times(1)).findAllById((Iterable<Long>) any());
-        verifyNoInteractions(awardRepository);
+        verifyNoInteractions(employeeRepository, awardRepository);
     }
 
     @Test
@@ -105,7 +136,7 @@ class AwardImportServiceTest {
         assertThat(result.getTotalRows()).isEqualTo(2);
         assertThat(result.getImportedRows()).isEqualTo(0);
         assertThat(result.getSkippedRows()).isEqualTo(2);
-        assertThat(result.getErrors()).hasSize(2);
+        assertThat(result.getErrorGroups()).hasSize(2);
 
         verifyNoInteractions(awardRepository);
     }
@@ -120,7 +151,7 @@ class AwardImportServiceTest {
         when(employeeRepository.findAllById((Iterable<Long>) any()))
                 .thenReturn(Flux.just(new Employee(1L, "Иванов И.И.")));
 
-        when(awardRepository.save(any(Award.class)))
+        when(awardRepository.insertBatch(any(AwardRowBatch.class), any(BitSet.class)))
                 .thenReturn(Mono.error(new RuntimeException("DB error")));
 
         ImportResultDto result = awardImportService.importAwards(rows).block();
@@ -129,9 +160,12 @@ class AwardImportServiceTest {
         assertThat(result.getTotalRows()).isEqualTo(1);
         assertThat(result.getImportedRows()).isEqualTo(0);
         assertThat(result.getSkippedRows()).isEqualTo(1);
-        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrorGroups())
+                .hasSize(1)
+                .first()
+                .satisfies(error -> assertThat(error.getType()).isEqualTo(ImportErrorType.SAVE_FAILED));
 
-        verify(awardRepository, times(1)).save(any(Award.class));
+        verify(awardRepository, times(1)).insertBatch(any(AwardRowBatch.class), any(BitSet.class));
     }
 
     @Test
@@ -148,15 +182,16 @@ class AwardImportServiceTest {
         when(employeeRepository.findAllById((Iterable<Long>) any()))
                 .thenReturn(Flux.just(new Employee(1L, "Иванов И.И.")));
 
-        when(awardRepository.save(any(Award.class)))
+        when(awardRepository.insertBatch(any(AwardRowBatch.class), any(BitSet.class)))
                 .thenAnswer(invocation -> {
-                    Award a = invocation.getArgument(0);
-                    if ("A3".equals(a.getAwardCode())) {
-                        return Mono.error(new RuntimeException("DB fail"));
+                    AwardRowBatch batch = invocation.getArgument(0);
+                    BitSet inserted = (BitSet) ((BitSet) invocation.getArgument(1)).clone();
+                    for (int i = 0; i < batch.size(); i++) {
+                        if ("A3".equals(batch.awardCode(i))) {
+                            inserted.clear(i);
+                        }
                     }
-                    a.setId(200L);
-                    a.setCreatedAt(LocalDateTime.now());
-                    return Mono.just(a);
+                    return Mono.just(inserted);
                 });
 
         ImportResultDto result = awardImportService.importAwards(rows).block();
@@ -166,10 +201,12 @@ class AwardImportServiceTest {
         assertThat(result.getImportedRows()).isEqualTo(1);
         assertThat(result.getSkippedRows()).isEqualTo(2);
 
-        assertThat(result.getErrors()).hasSize(2);
-        assertThat(result.getErrors())
-                .extracting(ImportErrorDto::getRowNumber)
-                .containsExactlyInAnyOrder(3, 4);
+        assertThat(result.getErrorGroups()).hasSize(2);
+        assertThat(result.getErrorGroups())
+                .extracting(ImportErrorGroupDto::getType, ImportErrorGroupDto::getRows)
+                .containsExactlyInAnyOrder(
+                        tuple(ImportErrorType.EMPLOYEE_NOT_FOUND, "3"),
+                        tuple(ImportErrorType.DUPLICATE_AWARD, "4"));
     }
 
     @Test
@@ -183,13 +220,8 @@ class AwardImportServiceTest {
         when(employeeRepository.findAllById((Iterable<Long>) any()))
                 .thenReturn(Flux.just(e, e));
 
-        when(awardRepository.save(any(Award.class)))
-                .thenAnswer(invocation -> {
-                    Award a = invocation.getArgument(0);
-                    a.setId(300L);
-                    a.setCreatedAt(LocalDateTime.now());
-                    return Mono.just(a);
-                });
+        when(awardRepository.insertBatch(any(AwardRowBatch.class), any(BitSet.class)))
+                .thenAnswer(AwardImportServiceTest::insertAll);
 
         ImportResultDto result = awardImportService.importAwards(rows).block();
 
@@ -197,8 +229,193 @@ class AwardImportServiceTest {
         assertThat(result.getTotalRows()).isEqualTo(1);
         assertThat(result.getImportedRows()).isEqualTo(1);
         assertThat(result.getSkippedRows()).isEqualTo(0);
-        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getErrorGroups()).isEmpty();
+
+        verify(awardRepository, times(1)).insertBatch(any(AwardRowBatch.class), any(BitSet.class));
+    }
+
+    @Test
+    void shouldGroupErrorsOfSameEmployeeIntoRowRange() {
+        Flux<AwardUploadRow> rows = Flux.just(
+                new AwardUploadRow(7L, "Неизвестный", "X1", "Награда", LocalDate.parse("2024-06-01"), 2),
+                new AwardUploadRow(7L, "Неизвестный", "X2", "Награда", LocalDate.parse("2024-06-02"), 3),
+                new AwardUploadRow(7L, "Неизвестный", "X3", "Награда", LocalDate.parse("2024-06-03"), 4),
+                new AwardUploadRow(7L, "Неизвестный", "X4", "Награда", LocalDate.parse("2024-06-04"), 6));
+
+        when(employeeRepository.findAllById((Iterable<Long>) any()))
+                .thenReturn(Flux.empty());
+
+        ImportResultDto result = awardImportService.importAwards(rows).block();
+
+        assertThat(result).isNotNull();
+        assertThat(result.getSkippedRows()).isEqualTo(4);
+        assertThat(result.getErrorGroups())
+                .hasSize(1)
+                .first()
+                .satisfies(error -> {
+                    assertThat(error.getMessage()).isEqualTo("Employee with id 7 not found");
+                    assertThat(error.getRowCount()).isEqualTo(4);
+                    assertThat(error.getRows()).isEqualTo("2-4,6");
+                });
+
+        verify(importErrorRepository).saveAll(anyIterable());
+    }
+
+    @Test
+    void shouldLookUpEachEmployeeOnceAcrossBatches() {
+        int rowCount = AwardRowBatch.DEFAULT_SIZE + 500;
+        Flux<AwardUploadRow> rows = Flux.range(2, rowCount)
+                .map(rowNumber -> new AwardUploadRow(1L, "Иванов И.И.", "A" + rowNumber, "Награда",
+                        LocalDate.parse("2024-07-01"), rowNumber));
+
+        when(employeeRepository.findAllById((Iterable<Long>) any()))
+                .thenReturn(Flux.just(new Employee(1L, "Иванов И.И.")));
+
+        when(awardRepository.insertBatch(any(AwardRowBatch.class), any(BitSet.class)))
+                .thenAnswer(AwardImportServiceTest::insertAll);
+
+        ImportResultDto result = awardImportService.importAwards(rows).block();
+
+        assertThat(result).isNotNull();
+        assertThat(result.getTotalRows()).isEqualTo(rowCount);
+        assertThat(result.getImportedRows()).isEqualTo(rowCount);
+
+        verify(employeeRepository, times(1)).findAllById((Iterable<Long>) any());
+        verify(awardRepository, times(2)).insertBatch(any(AwardRowBatch.class), any(BitSet.class));
+    }
+
+    @Test
+    void shouldKeepSaveFailuresWithDifferentMessagesInSeparateGroups() {
+        AwardRowBatch first = AwardRowBatch.of(List.of(
+                new AwardUploadRow(1L, "Иванов И.И.", "A1", "Награда", LocalDate.parse("2024-08-01"), 2)));
+        AwardRowBatch second = AwardRowBatch.of(List.of(
+                new AwardUploadRow(1L, "Иванов И.И.", "A2", "Награда", LocalDate.parse("2024-08-02"), 3)));
+
+        when(employeeRepository.findAllById((Iterable<Long>) any()))
+                .thenReturn(Flux.just(new Employee(1L, "Иванов И.И.")));
+
+        when(awardRepository.insertBatch(any(AwardRowBatch.class), any(BitSet.class)))
+                .thenAnswer(invocation -> {
+                    AwardRowBatch batch = invocation.getArgument(0);
+                    return Mono.error(new IllegalStateException("A1".equals(batch.awardCode(0))
+                            ? "duplicate key value violates unique constraint"
+                            : "value too long for type character varying(100)"));
+                });
+
+        ImportResultDto result = awardImportService.importBatches(Flux.just(first, second)).block();
+
+        assertThat(result).isNotNull();
+        assertThat(result.getErrorGroups())
+                .extracting(ImportErrorGroupDto::getMessage, ImportErrorGroupDto::getRows)
+                .containsExactly(
+                        tuple("Error with save award: duplicate key value violates unique constraint", "2"),
+                        tuple("Error with save award: value too long for type character varying(100)", "3"));
+    }
+
+    @Test
+    void shouldReportUnreadableRowAfterFirstBatchAndImportTheRest() {
+        StringBuilder content = new StringBuilder("employee_id,award_code,award_name,award_date\n");
+        for (int i = 0; i < AwardRowBatch.DEFAULT_SIZE; i++) {
+            content.append("1,A").append(i).append(",Награда,2024-10-01\n");
+        }
+        content.append("1,BAD,Награда,2024-13-01\n");
+        content.append("1,LAST,Награда,2024-10-02\n");
+
+        when(employeeRepository.findAllById((Iterable<Long>) any()))
+                .thenReturn(Flux.just(new Employee(1L, "Иванов И.И.")));
+
+        when(awardRepository.insertBatch(any(AwardRowBatch.class), any(BitSet.class)))
+                .thenAnswer(AwardImportServiceTest::insertAll);
+
+        ImportResultDto result = awardImportService.importBatches(new CsvAwardFileParser()
+                .parseBatches(new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8))))
+                .block();
+
+        assertThat(result).isNotNull();
+        assertThat(result.getImportId()).isEqualTo(42L);
+        assertThat(result.getTotalRows()).isEqualTo(AwardRowBatch.DEFAULT_SIZE + 2);
+        assertThat(result.getImportedRows()).isEqualTo(AwardRowBatch.DEFAULT_SIZE + 1);
+        assertThat(result.getErrorGroups())
+                .singleElement()
+                .satisfies(error -> {
+                    assertThat(error.getType()).isEqualTo(ImportErrorType.INVALID_ROW);
+                    assertThat(error.getMessage()).isEqualTo("Invalid value in column award_date");
+                    assertThat(error.getRows()).isEqualTo(String.valueOf(AwardRowBatch.DEFAULT_SIZE + 2));
+                });
+
+        verify(awardRepository, times(2)).insertBatch(any(AwardRowBatch.class), any(BitSet.class));
+    }
+
+    @Test
+    void shouldImportAwardRepeatedAcrossSourcesOnlyOnce() {
+        AwardRowBatch first = AwardRowBatch.of(List.of(
+                new AwardUploadRow(1L, "Иванов И.И.", "A1", "Награда", LocalDate.parse("2024-09-01"), 2),
+                new AwardUploadRow(1L, "Иванов И.И.", "A2", "Награда", LocalDate.parse("2024-09-02"), 3)));
+        AwardRowBatch second = AwardRowBatch.of(List.of(
+                new AwardUploadRow(1L, "Иванов И.И.", "A1", "Награда", LocalDate.parse("2024-09-01"), 2)));
+
+        when(employeeRepository.findAllById((Iterable<Long>) any()))
+                .thenReturn(Flux.just(new Employee(1L, "Иванов И.И.")));
+
+        Set<String> stored = ConcurrentHashMap.newKeySet();
+        when(awardRepository.insertBatch(any(AwardRowBatch.class), any(BitSet.class)))
+                .thenAnswer(invocation -> {
+                    AwardRowBatch batch = invocation.getArgument(0);
+                    BitSet rows = invocation.getArgument(1);
+                    BitSet inserted = new BitSet();
+                    for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+                        if (stored.add(batch.employeeId(i) + "/" + batch.awardCode(i) + "/" + batch.awardDate(i))) {
+                            inserted.set(i);
+                        }
+                    }
+                    return Mono.just(inserted);
+                });
+
+        ImportResultDto result = awardImportService.importSources(Flux.just(
+                new ImportSource("hr.csv", Flux.just(first)),
+                new ImportSource("finance.xlsx#Sheet1", Flux.just(second)))).block();
+
+        assertThat(result).isNotNull();
+        assertThat(result.getTotalRows()).isEqualTo(3);
+        assertThat(result.getImportedRows()).isEqualTo(2);
+        assertThat(result.getSkippedRows()).isEqualTo(1);
+        assertThat(result.getSources())
+                .extracting(ImportSourceResultDto::getSource, ImportSourceResultDto::getTotalRows)
+                .containsExactly(tuple("hr.csv", 2), tuple("finance.xlsx#Sheet1", 1));
+        assertThat(result.getErrorGroups())
+                .singleElement()
+                .satisfies(error -> assertThat(error.getType()).isEqualTo(ImportErrorType.DUPLICATE_AWARD));
+    }
+
+    @Test
+    void shouldReportSourceWithInvalidFormatAndImportTheOthers() {
+        AwardRowBatch batch = AwardRowBatch.of(List.of(
+                new AwardUploadRow(1L, "Иванов И.И.", "A1", "Награда", LocalDate.parse("2024-11-01"), 2)));
+
+        when(employeeRepository.findAllById((Iterable<Long>) any()))
+                .thenReturn(Flux.just(new Employee(1L, "Иванов И.И.")));
+
+        when(awardRepository.insertBatch(any(AwardRowBatch.class), any(BitSet.class)))
+                .thenAnswer(AwardImportServiceTest::insertAll);
+
+        ImportResultDto result = awardImportService.importSources(Flux.just(
+                new ImportSource("awards.xlsx#Awards", Flux.just(batch)),
+                new ImportSource("awards.xlsx#Notes",
+                        Flux.error(new ImportFormatException("Missing required columns: employee_id"))))).block();
+
+        assertThat(result).isNotNull();
+        assertThat(result.getImportId()).isEqualTo(42L);
+        assertThat(result.getImportedRows()).isEqualTo(1);
+        assertThat(result.getErrorGroups())
+                .singleElement()
+                .satisfies(error -> {
+                    assertThat(error.getSource()).isEqualTo("awards.xlsx#Notes");
+                    assertThat(error.getType()).isEqualTo(ImportErrorType.INVALID_FORMAT);
+                    assertThat(error.getMessage()).isEqualTo("Missing required columns: employee_id");
+                });
+    }
 
-        verify(awardRepository, times(1)).save(any(Award.class));
+    private static Mono<BitSet> insertAll(InvocationOnMock invocation) {
+        return Mono.just(invocation.getArgument(1));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package org.example.service.admission;
+
+import org.example.config.AwardImportProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportAdmissionServiceTest {
+
+    private static ImportAdmissionService service(int maxConcurrent, long budgetBytes, int maxQueued, int maxQueuedPerClient) {
+        return new ImportAdmissionService(new AwardImportProperties(1, new AwardImportProperties.Admission(
+                maxConcurrent,
+                DataSize.ofBytes(budgetBytes),
+                DataSize.ofBytes(10),
+                maxQueued,
+                maxQueuedPerClient,
+                Duration.ofSeconds(15))));
+    }
+
+    @Test
+    void shouldRunImportImmediatelyWhenUnderLimits() {
+        ImportAdmissionService service = service(2, 100, 10, 10);
+
+        String result = service.admit("hr", 10, () -> Mono.just("done")).block();
+
+        assertThat(result).isEqualTo("done");
+        assertThat(service.running()).isZero();
+        assertThat(service.queued()).isZero();
+    }
+
+    @Test
+    void shouldQueueImportUntilRunningOneCompletes() {
+        ImportAdmissionService service = service(1, 100, 10, 10);
+        Sinks.One<String> first = Sinks.one();
+        List<String> started = new ArrayList<>();
+
+        service.admit("hr", 10, () -> start(started, "first", first.asMono())).subscribe();
+        service.admit("hr", 10, () -> start(started, "second", Mono.just("second"))).subscribe();
+
+        assertThat(started).containsExactly("first");
+        assertThat(service.running()).isEqualTo(1);
+        assertThat(service.queued()).isEqualTo(1);
+
+        first.tryEmitValue("first");
+
+        assertThat(started).containsExactly("first", "second");
+        assertThat(service.running()).isZero();
+        assertThat(service.queued()).isZero();
+    }
+
+    @Test
+    void shouldQueueImportThatExceedsMemoryBudget() {
+        ImportAdmissionService service = service(4, 100, 10, 10);
+        Sinks.One<String> first = Sinks.one();
+
+        service.admit("hr", 80, first::asMono).subscribe();
+        service.admit("finance", 30, () -> Mono.just("second")).subscribe();
+
+        assertThat(service.running()).isEqualTo(1);
+        assertThat(service.queued()).isEqualTo(1);
+
+        first.tryEmitValue("first");
+
+        assertThat(service.running()).isZero();
+        assertThat(service.queued()).isZero();
+    }
+
+    @Test
+    void shouldRejectWhenClientQueueIsFull() {
+        ImportAdmissionService service = service(1, 100, 10, 1);
+
+        service.admit("hr", 10, Mono::never).subscribe();
+        service.admit("hr", 10, Mono::never).subscribe();
+
+        assertThatThrownBy(() -> service.admit("hr", 10, () -> Mono.just("rejected")).block())
+                .isInstanceOfSatisfying(ImportRejectedException.class, ex ->
+                        assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(15)));
+    }
+
+    @Test
+    void shouldServeQueuedClientsRoundRobin() {
+        ImportAdmissionService service = service(1, 100, 10, 10);
+        Sinks.One<String> blocker = Sinks.one();
+        List<String> started = new ArrayList<>();
+
+        service.admit("blocker", 10, blocker::asMono).subscribe();
+        service.admit("hr", 10, () -> start(started, "hr-1", Mono.just("hr-1"))).subscribe();
+        service.admit("hr", 10, () -> start(started, "hr-2", Mono.just("hr-2"))).subscribe();
+        service.admit("finance", 10, () -> start(started, "finance-1", Mono.just("finance-1"))).subscribe();
+
+        blocker.tryEmitValue("unblock");
+
+        assertThat(started).containsExactly("hr-1", "finance-1", "hr-2");
+    }
+
+    @Test
+    void shouldFreeQueueSlotWhenWaitingImportIsCancelled() {
+        ImportAdmissionService service = service(1, 100, 10, 10);
+
+        service.admit("hr", 10, Mono::never).subscribe();
+        service.admit("hr", 10, () -> Mono.just("waiting")).subscribe().dispose();
+
+        assertThat(service.queued()).isZero();
+        assertThat(service.running()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAdmitWaitersBehindCancelledHeadOfQueue() {
+        ImportAdmissionService service = service(2, 100, 10, 10);
+        List<String> started = new ArrayList<>();
+
+        service.admit("blocker", 60, Mono::never).subscribe();
+        Disposable head = service.admit("hr", 60, () -> start(started, "hr", Mono.never())).subscribe();
+        service.admit("finance", 10, () -> start(started, "finance", Mono.never())).subscribe();
+
+        assertThat(service.queued()).isEqualTo(2);
+
+        head.dispose();
+
+        assertThat(started).containsExactly("finance");
+        assertThat(service.queued()).isZero();
+        assertThat(service.running()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReleaseSlotOfImportCancelledRightAfterAdmission() {
+        ImportAdmissionService service = service(1, 100, 10, 10);
+
+        service.admit("hr", 10, Mono::never).subscribe().dispose();
+        service.admit("hr", 10, Mono::never).subscribe().dispose();
+
+        assertThat(service.running()).isZero();
+        assertThat(service.queued()).isZero();
+        assertThat(service.admit("hr", 10, () -> Mono.just("done")).block()).isEqualTo("done");
+    }
+
+    private static <T> Mono<T> start(List<String> started, String name, Mono<T> task) {
+        started.add(name);
+        return task;
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.service.parser;
+
+import org.example.model.batch.AwardRowBatch;
+import org.example.model.dto.AwardUploadRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvAwardFileParserTest {
+
+    private final CsvAwardFileParser parser = new CsvAwardFileParser();
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldMapColumnsByHeaderNames() {
+        String content = """
+                award_date,Award Code,employeeId,award_name,employee_full_name
+                2024-01-10,A1,1,Лучший сотрудник,Иванов И.И.
+                """;
+
+        List<AwardUploadRow> rows = parser.parse(csv(content)).collectList().block();
+
+        assertThat(rows).containsExactly(new AwardUploadRow(
+                1L, "Иванов И.И.", "A1", "Лучший сотрудник", LocalDate.parse("2024-01-10"), 2));
+    }
+
+    @Test
+    void shouldDetectDateFormatFromFirstRow() {
+        String content = """
+                employee_id,award_code,award_name,award_date
+                1,A1,Награда,10.01.2024
+                2,A2,Награда,11.02.2024
+                """;
+
+        List<AwardUploadRow> rows = parser.parse(csv(content)).collectList().block();
+
+        assertThat(rows)
+                .extracting(AwardUploadRow::getAwardDate)
+                .containsExactly(LocalDate.parse("2024-01-10"), LocalDate.parse("2024-02-11"));
+        assertThat(rows)
+                .extracting(AwardUploadRow::getEmployeeFullName)
+                .containsOnly("");
+    }
+
+    @Test
+    void shouldFailWholeFileWhenRequiredColumnsAreMissing() {
+        String content = """
+                employee_id,employee_full_name,award_name
+                1,Иванов И.И.,Награда
+                2,Петров П.П.,Награда
+                """;
+
+        assertThatThrownBy(() -> parser.parseBatches(csv(content)).blockLast())
+                .isInstanceOf(ImportFormatException.class)
+                .hasMessageContaining("award_code")
+                .hasMessageContaining("award_date");
+    }
+
+    @Test
+    void shouldSplitLargeFileIntoBatches() {
+        StringBuilder content = new StringBuilder("\uFEFFemployee_id,employee_full_name,award_code,award_name,award_date\n");
+        int rowCount = AwardRowBatch.DEFAULT_SIZE + 1;
+        for (int i = 0; i < rowCount; i++) {
+            content.append(i).append(",Сотрудник,A1,Награда,2024-03-01\n");
+        }
+
+        List<AwardRowBatch> batches = parser.parseBatches(csv(content.toString())).collectList().block();
+
+        assertThat(batches)
+                .extracting(AwardRowBatch::size)
+                .containsExactly(AwardRowBatch.DEFAULT_SIZE, 1);
+        assertThat(batches.get(1).rowNumber(0)).isEqualTo(rowCount + 1);
+    }
+
+    @Test
+    void shouldRecordUnreadableRowsAsInvalidAndKeepParsing() {
+        String content = """
+                employee_id,award_code,award_name,award_date
+                1,A1,Награда,2024-01-10
+                abc,A2,Награда,2024-01-11
+                3,A3,Награда,2024-02-30
+                4,A4
+                5,A5,Награда,10.01.2024
+                6,A6,Награда,2024-01-12
+                """;
+
+        AwardRowBatch batch = parser.parseBatches(csv(content)).single().block();
+
+        assertThat(batch.size()).isEqualTo(2);
+        assertThat(batch.rows())
+                .extracting(AwardUploadRow::getRowNumber)
+                .containsExactly(2, 7);
+        assertThat(batch.invalidCount()).isEqualTo(4);
+        assertThat(List.of(
+                batch.invalidReason(0), batch.invalidReason(1), batch.invalidReason(2), batch.invalidReason(3)))
+                .containsExactly(
+                        "Invalid value in column employee_id",
+                        "Invalid value in column award_date",
+                        "Not enough columns",
+                        "Invalid value in column award_date");
+        assertThat(List.of(
+                batch.invalidRowNumber(0), batch.invalidRowNumber(1), batch.invalidRowNumber(2), batch.invalidRowNumber(3)))
+                .containsExactly(3, 4, 5, 6);
+    }
+
+    @Test
+    void shouldSkipBlankLines() {
+        String content = "employee_id,award_code,award_name,award_date\n"
+                + "1,A1,Награда,2024-01-10\n"
+                + "\n"
+                + "   \n"
+                + "2,A2,Награда,2024-01-11\n"
+                + "\n";
+
+        AwardRowBatch batch = parser.parseBatches(csv(content)).single().block();
+
+        assertThat(batch.rows())
+                .extracting(AwardUploadRow::getRowNumber)
+                .containsExactly(2, 5);
+        assertThat(batch.invalidCount()).isZero();
+    }
+
+    @Test
+    void shouldNotTakeGenericNameColumnForAwardName() {
+        String content = """
+                employee_id,Name,award_code,award_date
+                1,Иванов И.И.,A1,2024-01-10
+                """;
+
+        assertThatThrownBy(() -> parser.parseBatches(csv(content)).blockLast())
+                .isInstanceOf(ImportFormatException.class)
+                .hasMessageContaining("award_name");
+    }
+
+    @Test
+    void shouldFailWhenTwoHeadersMatchSameColumn() {
+        String content = """
+                employee_id,award_code,Award Code,award_name,award_date
+                1,A1,A2,Награда,2024-01-10
+                """;
+
+        assertThatThrownBy(() -> parser.parseBatches(csv(content)).blockLast())
+                .isInstanceOf(ImportFormatException.class)
+                .hasMessageContaining("award_code")
+                .hasMessageContaining("Award Code");
+    }
+
+    @Test
+    void shouldCheckHeaderWhenSourceIsCreated() {
+        String content = """
+                employee_id,award_name
+                1,Награда
+                """;
+
+        assertThatThrownBy(() -> parser.parseSources(csv(content), "finance.csv").collectList().block())
+                .isInstanceOf(ImportFormatException.class)
+                .hasMessageStartingWith("finance.csv: ")
+                .hasMessageContaining("award_code");
+    }
+}
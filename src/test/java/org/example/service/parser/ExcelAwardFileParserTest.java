@@ -0,0 +1,233 @@
+package org.example.service.parser;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.example.model.batch.AwardRowBatch;
+import org.example.model.batch.ImportSource;
+import org.example.model.dto.AwardUploadRow;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExcelAwardFileParserTest {
+
+    private final ExcelAwardFileParser parser = new ExcelAwardFileParser();
+
+    @Test
+    void shouldMapReorderedColumnsByHeaderNames() throws IOException {
+        InputStream workbook = workbook(sheet -> {
+            row(sheet, 0, "Award Date", "award_name", "Employee ID", "award_code", "ФИО");
+            row(sheet, 1, "10.01.2024", "Лучший сотрудник", 1, "A1", "Иванов И.И.");
+        });
+
+        List<AwardUploadRow> rows = rows(workbook);
+
+        assertThat(rows).containsExactly(new AwardUploadRow(
+                1L, "Иванов И.И.", "A1", "Лучший сотрудник", LocalDate.parse("2024-01-10"), 2));
+    }
+
+    @Test
+    void shouldReadDateFormattedNumericCells() throws IOException {
+        InputStream workbook = workbook(sheet -> {
+            CellStyle dateStyle = sheet.getWorkbook().createCellStyle();
+            dateStyle.setDataFormat(sheet.getWorkbook().getCreationHelper().createDataFormat().getFormat("dd.mm.yyyy"));
+
+            row(sheet, 0, "employee_id", "award_code", "award_name", "award_date");
+            Row row = row(sheet, 1, 1, "A1", "Награда");
+            row.createCell(3).setCellValue(LocalDate.parse("2024-03-15"));
+            row.getCell(3).setCellStyle(dateStyle);
+        });
+
+        List<AwardUploadRow> rows = rows(workbook);
+
+        assertThat(rows)
+                .extracting(AwardUploadRow::getAwardDate)
+                .containsExactly(LocalDate.parse("2024-03-15"));
+    }
+
+    @Test
+    void shouldReadEmployeeIdsStoredAsText() throws IOException {
+        InputStream workbook = workbook(sheet -> {
+            row(sheet, 0, "employee_id", "award_code", "award_name", "award_date");
+            row(sheet, 1, "00042", "A1", "Награда", "2024-01-10");
+            row(sheet, 2, " 7 ", "A2", "Награда", "2024-01-11");
+            row(sheet, 3, "7a", "A3", "Награда", "2024-01-12");
+        });
+
+        AwardRowBatch batch = batches(workbook).single().block();
+
+        assertThat(batch.rows())
+                .extracting(AwardUploadRow::getEmployeeId)
+                .containsExactly(42L, 7L);
+        assertThat(batch.invalidCount()).isEqualTo(1);
+        assertThat(batch.invalidRowNumber(0)).isEqualTo(4);
+        assertThat(batch.invalidReason(0)).isEqualTo("Invalid value in column employee_id");
+    }
+
+    @Test
+    void shouldRejectFractionalNumericEmployeeIds() throws IOException {
+        InputStream workbook = workbook(sheet -> {
+            row(sheet, 0, "employee_id", "award_code", "award_name", "award_date");
+            row(sheet, 1, 12.7, "A1", "Награда", "2024-01-10");
+            row(sheet, 2, 12.0, "A2", "Награда", "2024-01-11");
+        });
+
+        AwardRowBatch batch = batches(workbook).single().block();
+
+        assertThat(batch.rows())
+                .extracting(AwardUploadRow::getEmployeeId)
+                .containsExactly(12L);
+        assertThat(batch.invalidCount()).isEqualTo(1);
+        assertThat(batch.invalidRowNumber(0)).isEqualTo(2);
+        assertThat(batch.invalidReason(0)).isEqualTo("Invalid value in column employee_id");
+    }
+
+    @Test
+    void shouldFailWhenRequiredColumnsAreMissing() throws IOException {
+        InputStream workbook = workbook(sheet -> {
+            row(sheet, 0, "employee_id", "award_name");
+            row(sheet, 1, 1, "Награда");
+        });
+
+        assertThatThrownBy(() -> batches(workbook).blockLast())
+                .isInstanceOf(ImportFormatException.class)
+                .hasMessageContaining("award_code")
+                .hasMessageContaining("award_date");
+    }
+
+    @Test
+    void shouldParseEverySheetAsOwnSource() throws IOException {
+        InputStream workbook = workbook(Map.of(
+                "HR", sheet -> {
+                    row(sheet, 0, "employee_id", "award_code", "award_name", "award_date");
+                    row(sheet, 1, 1, "A1", "Награда", "2024-01-10");
+                    row(sheet, 2, 2, "A2", "Награда", "2024-01-11");
+                },
+                "Empty", sheet -> { },
+                "Finance", sheet -> {
+                    row(sheet, 0, "award_date", "employee_id", "award_code", "award_name");
+                    row(sheet, 1, "12.01.2024", 3, "A3", "Награда");
+                }), "HR", "Empty", "Finance");
+
+        List<ImportSource> sources = parser.parseSources(workbook, "awards.xlsx").collectList().block();
+
+        assertThat(sources)
+                .extracting(ImportSource::name)
+                .containsExactly("awards.xlsx#HR", "awards.xlsx#Finance");
+        assertThat(sources)
+                .extracting(source -> source.batches().flatMapIterable(AwardRowBatch::rows).count().block())
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shouldReportSheetWithoutAwardColumnsAsFailedSource() throws IOException {
+        InputStream workbook = workbook(Map.of(
+                "Summary", sheet -> row(sheet, 0, "Total", 2),
+                "Awards", sheet -> {
+                    row(sheet, 0, "employee_id", "award_code", "award_name", "award_date");
+                    row(sheet, 1, 1, "A1", "Награда", "2024-01-10");
+                }), "Summary", "Awards");
+
+        List<ImportSource> sources = parser.parseSources(workbook, "awards.xlsx").collectList().block();
+
+        assertThat(sources)
+                .extracting(ImportSource::name)
+                .containsExactly("awards.xlsx#Summary", "awards.xlsx#Awards");
+        assertThatThrownBy(() -> sources.get(0).batches().blockLast())
+                .isInstanceOf(ImportFormatException.class)
+                .hasMessageContaining("employee_id");
+        assertThat(sources.get(1).batches().single().block().size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReadSheetsOfOneWorkbookInParallel() throws IOException {
+        int rowCount = AwardRowBatch.DEFAULT_SIZE + 1;
+        SheetWriter writer = sheet -> {
+            row(sheet, 0, "employee_id", "award_code", "award_name", "award_date");
+            for (int i = 1; i <= rowCount; i++) {
+                row(sheet, i, i, "A1", "Награда", "2024-01-10");
+            }
+        };
+        InputStream workbook = workbook(Map.of("HR", writer, "Finance", writer), "HR", "Finance");
+
+        List<ImportSource> sources = parser.parseSources(workbook, "awards.xlsx").collectList().block();
+        Long rows = Flux.fromIterable(sources)
+                .flatMap(source -> source.batches().subscribeOn(Schedulers.boundedElastic()))
+                .flatMapIterable(AwardRowBatch::rows)
+                .count()
+                .block();
+
+        assertThat(rows).isEqualTo(2L * rowCount);
+    }
+
+    @Test
+    void shouldFailWorkbookWithoutAnyAwardSheet() throws IOException {
+        InputStream workbook = workbook(Map.of(
+                "Notes", sheet -> row(sheet, 0, "Comment"),
+                "Summary", sheet -> row(sheet, 0, "Total", 2)), "Notes", "Summary");
+
+        assertThatThrownBy(() -> parser.parseSources(workbook, "awards.xlsx").collectList().block())
+                .isInstanceOf(ImportFormatException.class)
+                .hasMessageStartingWith("awards.xlsx#Notes: ");
+    }
+
+    private Flux<AwardRowBatch> batches(InputStream workbook) {
+        return parser.parseSources(workbook, "awards.xlsx")
+                .concatMap(ImportSource::batches);
+    }
+
+    private List<AwardUploadRow> rows(InputStream workbook) {
+        return batches(workbook)
+                .flatMapIterable(AwardRowBatch::rows)
+                .collectList()
+                .block();
+    }
+
+    private static InputStream workbook(Map<String, SheetWriter> writers, String... sheetOrder) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (String name : sheetOrder) {
+                writers.get(name).write(workbook.createSheet(name));
+            }
+            workbook.write(out);
+            return new ByteArrayInputStream(out.toByteArray());
+        }
+    }
+
+    private static InputStream workbook(SheetWriter writer) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            writer.write(workbook.createSheet("Awards"));
+            workbook.write(out);
+            return new ByteArrayInputStream(out.toByteArray());
+        }
+    }
+
+    private static Row row(Sheet sheet, int index, Object... values) {
+        Row row = sheet.createRow(index);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] instanceof Number number) {
+                row.createCell(i).setCellValue(number.doubleValue());
+            } else {
+                row.createCell(i).setCellValue((String) values[i]);
+            }
+        }
+        return row;
+    }
+
+    @FunctionalInterface
+    private interface SheetWriter {
+        void write(Sheet sheet);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.service.report;
+
+import org.example.PostgresIntegrationTest;
+import org.example.model.AwardImport;
+import org.example.model.AwardImportError;
+import org.example.model.ImportErrorType;
+import org.example.repository.AwardImportErrorRepository;
+import org.example.repository.AwardImportRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportErrorReportServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ImportErrorReportService reportService;
+
+    @Autowired
+    private AwardImportRepository importRepository;
+
+    @Autowired
+    private AwardImportErrorRepository errorRepository;
+
+    @Test
+    void shouldExpandRowRangesOrderedBySourceAndRow() {
+        Long importId = importRepository.save(new AwardImport(null, 10, 2, 8, LocalDateTime.now()))
+                .block()
+                .getId();
+        errorRepository.saveAll(List.of(
+                new AwardImportError(null, importId, "hr.csv", ImportErrorType.EMPLOYEE_NOT_FOUND,
+                        "7", "Employee with id 7 not found", 4, "2-4,9"),
+                new AwardImportError(null, importId, "hr.csv", ImportErrorType.DUPLICATE_AWARD,
+                        "DUPLICATE_AWARD", "Award already exists", 2, "5,8"),
+                new AwardImportError(null, importId, "finance.csv", ImportErrorType.SAVE_FAILED,
+                        "23514 check failed", "Error with save award: check, failed", 2, "6-7")))
+                .blockLast();
+
+        String csv = reportService.findErrorCsv(importId)
+                .flatMapMany(lines -> lines)
+                .collectList()
+                .map(lines -> String.join("", lines))
+                .block();
+
+        assertThat(csv).isEqualTo("""
+                source,row_number,error_type,message
+                finance.csv,6,SAVE_FAILED,"Error with save award: check, failed"
+                finance.csv,7,SAVE_FAILED,"Error with save award: check, failed"
+                hr.csv,2,EMPLOYEE_NOT_FOUND,Employee with id 7 not found
+                hr.csv,3,EMPLOYEE_NOT_FOUND,Employee with id 7 not found
+                hr.csv,4,EMPLOYEE_NOT_FOUND,Employee with id 7 not found
+                hr.csv,5,DUPLICATE_AWARD,Award already exists
+                hr.csv,8,DUPLICATE_AWARD,Award already exists
+                hr.csv,9,EMPLOYEE_NOT_FOUND,Employee with id 7 not found
+                """);
+    }
+
+    @Test
+    void shouldReturnEmptyForUnknownImport() {
+        assertThat(reportService.findErrorCsv(-1L).blockOptional()).isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.service.report;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RowRangesTest {
+
+    private static RowRanges of(int... rows) {
+        RowRanges ranges = new RowRanges();
+        for (int row : rows) {
+            ranges.add(row);
+        }
+        return ranges;
+    }
+
+    @Test
+    void shouldMergeConsecutiveRowsIntoRanges() {
+        RowRanges ranges = of(3, 4, 5, 9, 11, 12);
+
+        assertThat(ranges.encode()).isEqualTo("3-5,9,11-12");
+        assertThat(ranges.rowCount()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldSortRowsAddedOutOfOrder() {
+        RowRanges ranges = of(10, 2, 11, 3, 7, 1);
+
+        assertThat(ranges.encode()).isEqualTo("1-3,7,10-11");
+        assertThat(ranges.rowCount()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldCountDuplicateRowsOnce() {
+        RowRanges ranges = of(5, 5, 6, 2, 5, 6);
+
+        assertThat(ranges.encode()).isEqualTo("2,5-6");
+        assertThat(ranges.rowCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldMergeOverlappingAndAdjacentRanges() {
+        RowRanges ranges = of(20, 21, 22, 23, 1, 2, 3, 4, 21, 22, 24, 5);
+
+        assertThat(ranges.encode()).isEqualTo("1-5,20-24");
+        assertThat(ranges.rowCount()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldEncodeNoRowsAsEmptyString() {
+        RowRanges ranges = new RowRanges();
+
+        assertThat(ranges.encode()).isEmpty();
+        assertThat(ranges.rowCount()).isZero();
+    }
+}